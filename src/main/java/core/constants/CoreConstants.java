@@ -35,7 +35,7 @@ public final class CoreConstants {
 
     /* ─────────────── Aspiration window params ─────────── */
     public static final int ASP_WINDOW_START_DEPTH   = 5;
-    public static final int ASP_WINDOW_INITIAL_DELTA = 15;
+    /* The initial delta and the pruning / reduction margins are tunable: see SearchParams. */
 
 
     /* ========================================================================
@@ -79,28 +79,12 @@ public final class CoreConstants {
     public static final double TM_INSTABILITY_PV_CHANGE_BONUS = 0.45;
 
     /* ========================================================================
-     * Late Move Reduction (LMR) Constants
+     * History tables
      * ======================================================================== */
-    public static final int LMR_MIN_DEPTH = 3;
-    public static final int LMR_MIN_MOVE_COUNT = 2;
-
-    /* ========================================================================
-     * Futility Pruning (FP) Constants
-     * ======================================================================== */
-    /** Maximum depth (from the horizon) at which futility pruning is applied. */
-    public static final int FP_MAX_DEPTH = 7;
-    /** A linear margin per ply of remaining depth. */
-    public static final int FP_MARGIN_PER_PLY = 125;
-    /** A quadratic margin based on depth^2 for more aggressive pruning. */
-    public static final int FP_MARGIN_QUADRATIC = 7;
-
-    /* ───────────── ProbCut (capture-only verification) ───────────── */
-    public static final int PROBCUT_MIN_DEPTH = 5;        // enable from this depth
-    public static final int PROBCUT_MARGIN_CP = 175;      // rBeta = beta + margin
-    public static final int PROBCUT_REDUCTION = 4;        // search at depth - R
-
-    public static final int LMP_MAX_DEPTH      = 6;   // only shallow depths
-    public static final int LMP_BASE_MOVES     = 2;   // always see a few moves
-    public static final int LMP_DEPTH_SCALE    = 2;   // threshold grows ~depth^2
-    public static final int LMP_HIST_MIN       = 50;  // history floor to keep (in cp-ish units)
+    /** Bound of every history entry; updates decay towards it. */
+    public static final int HISTORY_MAX = 16384;
+    /** Number of [piece][square] pairs; a continuation row per pair, plus one for "no move". */
+    public static final int PIECE_TO = 12 * 64;
+    /** Row of the continuation table used after a null move or at the root; never updated. */
+    public static final int CONT_NONE = PIECE_TO * PIECE_TO;
 }
@@ -0,0 +1,73 @@
+package core.constants;
+
+import static core.constants.CoreConstants.MAX_PLY;
+
+/**
+ * The tunable search parameters as {@code static final} fields.
+ *
+ * <p>This class is initialised lazily, by the first search that reads one of
+ * its fields, and resolves every field from {@link Tunables} at that moment.
+ * Nothing else touches it, so options set before the first {@code go} are
+ * honoured while the search itself sees plain constants the JIT can fold.</p>
+ */
+public final class SearchParams {
+
+    private SearchParams() {}
+
+    /* ─────────────── Aspiration windows ─────────────── */
+    public static final int ASP_WINDOW_INITIAL_DELTA = Tunables.resolve("AspDelta");
+
+    /* ─────────────── Node pruning ─────────────── */
+    /** Internal iterative reduction: PV nodes without a TT move from this depth on. */
+    public static final int IIR_MIN_DEPTH = Tunables.resolve("IirMinDepth");
+    /** Reverse futility pruning: prune if eval - margin * depth >= beta. */
+    public static final int RFP_MAX_DEPTH = Tunables.resolve("RfpMaxDepth");
+    public static final int RFP_MARGIN    = Tunables.resolve("RfpMargin");
+
+    public static final int PROBCUT_MIN_DEPTH = Tunables.resolve("ProbcutMinDepth");   // enable from this depth
+    public static final int PROBCUT_MARGIN_CP = Tunables.resolve("ProbcutMargin");     // rBeta = beta + margin
+    public static final int PROBCUT_REDUCTION = Tunables.resolve("ProbcutReduction");  // search at depth - R
+
+    /** Null-move reduction R = NMP_BASE + depth / NMP_DEPTH_DIV. */
+    public static final int NMP_BASE      = Tunables.resolve("NmpBase");
+    public static final int NMP_DEPTH_DIV = Tunables.resolve("NmpDepthDiv");
+
+    /* ─────────────── Move pruning ─────────────── */
+    /** Captures losing more than this per ply of depth (SEE) are pruned. */
+    public static final int SEE_MARGIN_PER_DEPTH = -Tunables.resolve("SeePruneMargin");
+
+    public static final int LMP_MAX_DEPTH   = Tunables.resolve("LmpMaxDepth");    // only shallow depths
+    public static final int LMP_BASE_MOVES  = Tunables.resolve("LmpBaseMoves");   // always see a few moves
+    public static final int LMP_DEPTH_SCALE = Tunables.resolve("LmpDepthScale");  // threshold grows ~depth^2
+    public static final int LMP_HIST_MIN    = Tunables.resolve("LmpHistMin");     // history floor to keep
+
+    /** Maximum depth (from the horizon) at which futility pruning is applied. */
+    public static final int FP_MAX_DEPTH        = Tunables.resolve("FpMaxDepth");
+    /** A linear margin per ply of remaining depth. */
+    public static final int FP_MARGIN_PER_PLY   = Tunables.resolve("FpMarginPerPly");
+    /** A quadratic margin based on depth^2 for more aggressive pruning. */
+    public static final int FP_MARGIN_QUADRATIC = Tunables.resolve("FpMarginQuadratic");
+
+    /* ─────────────── Late move reductions ─────────────── */
+    public static final int LMR_MIN_DEPTH      = Tunables.resolve("LmrMinDepth");
+    public static final int LMR_MIN_MOVE_COUNT = Tunables.resolve("LmrMinMoveCount");
+    /** Quiet-move history (butterfly plus continuation) worth one ply of reduction. */
+    public static final int LMR_HISTORY_DIVISOR = Tunables.resolve("LmrHistoryDivisor");
+
+    /** Base reduction by [depth][move number]: LmrBase/100 + ln(d) * ln(m) / (LmrDivisor/100). */
+    public static final int[][] LMR_TABLE = new int[MAX_PLY][MAX_PLY];
+
+    /* ─────────────── History ─────────────── */
+    /** History bonus per ply of depth: scale * depth - scale. */
+    public static final int HISTORY_BONUS_SCALE = Tunables.resolve("HistoryBonusScale");
+
+    static {
+        double base = Tunables.resolve("LmrBase") / 100.0;
+        double divisor = Tunables.resolve("LmrDivisor") / 100.0;
+        for (int d = 1; d < MAX_PLY; d++) {
+            for (int m = 1; m < MAX_PLY; m++) {
+                LMR_TABLE[d][m] = Math.max(0, (int) Math.round(base + Math.log(d) * Math.log(m) / divisor));
+            }
+        }
+    }
+}
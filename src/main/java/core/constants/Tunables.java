@@ -0,0 +1,99 @@
+package core.constants;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of the search parameters that can be tuned (e.g. by SPSA) without
+ * a rebuild.
+ *
+ * <p>Values can be set from the command line ({@code -Dhelios.RfpMargin=80})
+ * or with a UCI {@code setoption} before the first search. The search reads
+ * them through {@link SearchParams}, whose {@code static final} fields are
+ * resolved from this registry the first time a search runs. From then on they
+ * are JIT constants, exactly as if they had been literals, and this registry
+ * is frozen.</p>
+ */
+public final class Tunables {
+
+    private Tunables() {}
+
+    /** One tunable: its UCI name, default and inclusive range. */
+    public record Param(String name, int defaultValue, int min, int max) {}
+
+    /** UCI spin options are only listed when the engine runs with {@code -Dhelios.tune=true}. */
+    public static final boolean LISTED = Boolean.getBoolean("helios.tune");
+
+    /** Every tunable, in the order the UCI options are listed. */
+    public static final List<Param> PARAMS = List.of(
+            new Param("AspDelta",           15,    5,    60),
+            new Param("IirMinDepth",         4,    2,    10),
+            new Param("RfpMaxDepth",         8,    2,    16),
+            new Param("RfpMargin",          75,   20,   200),
+            new Param("ProbcutMinDepth",     5,    3,    10),
+            new Param("ProbcutMargin",     175,   50,   400),
+            new Param("ProbcutReduction",    4,    2,     6),
+            new Param("NmpBase",             3,    1,     6),
+            new Param("NmpDepthDiv",         4,    2,     8),
+            new Param("SeePruneMargin",     70,   20,   200),
+            new Param("LmpMaxDepth",         6,    1,    12),
+            new Param("LmpBaseMoves",        2,    0,    10),
+            new Param("LmpDepthScale",       2,    1,     6),
+            new Param("LmpHistMin",         50,    0,   500),
+            new Param("FpMaxDepth",          7,    1,    12),
+            new Param("FpMarginPerPly",    125,   30,   300),
+            new Param("FpMarginQuadratic",   7,    0,    40),
+            new Param("LmrMinDepth",         3,    2,     6),
+            new Param("LmrMinMoveCount",     2,    1,     6),
+            new Param("LmrBase",            75,    0,   200),   // hundredths
+            new Param("LmrDivisor",        250,  100,   500),   // hundredths
+            new Param("LmrHistoryDivisor", 8192, 2048, 32768),
+            new Param("HistoryBonusScale", 300,  100,   800));
+
+    private static final Map<String, Param> BY_NAME = new LinkedHashMap<>();
+    private static final Map<String, Integer> VALUES = new LinkedHashMap<>();
+    private static boolean frozen;
+
+    static {
+        for (Param p : PARAMS) {
+            BY_NAME.put(p.name(), p);
+            VALUES.put(p.name(), p.defaultValue());
+            String override = System.getProperty("helios." + p.name());
+            if (override != null) set(p.name(), Integer.parseInt(override.trim()));
+        }
+    }
+
+    /** @return true if {@code name} is a tunable parameter */
+    public static boolean contains(String name) {
+        return BY_NAME.containsKey(name);
+    }
+
+    /**
+     * Sets a parameter for the searches to come.
+     *
+     * @throws IllegalArgumentException for an unknown name or a value out of range
+     * @throws IllegalStateException    once a search has run and the values are fixed
+     */
+    public static synchronized void set(String name, int value) {
+        Param p = BY_NAME.get(name);
+        if (p == null) throw new IllegalArgumentException("unknown parameter " + name);
+        if (value < p.min() || value > p.max())
+            throw new IllegalArgumentException(name + " must be in [" + p.min() + ", " + p.max() + "]");
+        if (frozen) throw new IllegalStateException(name + " is fixed once the first search has started");
+        VALUES.put(name, value);
+    }
+
+    /** @return the current value of {@code name} */
+    public static synchronized int get(String name) {
+        Integer v = VALUES.get(name);
+        if (v == null) throw new IllegalArgumentException("unknown parameter " + name);
+        return v;
+    }
+
+    /** Called by {@link SearchParams} while it initialises: reads a value and freezes the registry. */
+    static synchronized int resolve(String name) {
+        frozen = true;
+        return get(name);
+    }
+}
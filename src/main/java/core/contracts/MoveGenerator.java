@@ -1,13 +1,70 @@
 package core.contracts;
 
+import core.records.AttackInfo;
+
 public interface MoveGenerator {
+  /**
+   * A move is {@code to | from << 6 | promo << 12 | flags << 14 | mover << 16}. Its low 16 bits
+   * are the storage form kept by the transposition table and the killer slots; the mover is
+   * recovered from the board with {@link #expand}.
+   */
+  int COMPACT_MASK = 0xFFFF;
+
+  /** The 16-bit storage form of {@code move}. */
+  static short compact(int move) {
+    return (short) move;
+  }
+
   int generateCaptures(long[] packedPosition, int[] mv, int n);
 
   int generateQuiets(long[] packedPosition, int[] mv, int n);
 
   int generateEvasions(long[] packedPosition, int[] mv, int n);
 
+  /**
+   * Generates only fully legal moves: evasions when in check, captures followed by quiets
+   * otherwise, filtered once with the node's pin set. Moves from this list may be played with
+   * {@link PositionFactory#makeLegalMoveInPlace}.
+   */
+  int generateLegal(long[] packedPosition, int[] mv, int n);
+
+  /** Pieces of the side to move that are absolutely pinned to their own king. */
+  long pinnedPieces(long[] packedPosition);
+
+  /**
+   * Legality of a move that is already known to be pseudo-legal (and, when the side to move is
+   * in check, to come from {@link #generateEvasions}). {@code pinned} must be
+   * {@link #pinnedPieces} of the same position.
+   */
+  boolean isLegal(long[] packedPosition, int move, long pinned);
+
+  /** Fills {@code ai} with the checkers, pins and enemy attack map of the side to move. */
+  void computeAttackInfo(long[] packedPosition, AttackInfo ai);
+
+  /**
+   * {@link #isLegal(long[], int, long)} against a precomputed {@link AttackInfo} of the same
+   * position: king moves and castling are answered from the attack map instead of probing every
+   * destination square.
+   */
+  boolean isLegal(long[] packedPosition, int move, AttackInfo ai);
+
   boolean kingAttacked(long[] bb, boolean moverWasWhite);
 
   boolean castleLegal(long[] packedPosition, int from, int to);
+
+  /**
+   * Cheap membership test: is {@code move} one of the moves {@link #generateCaptures} or
+   * {@link #generateQuiets} would produce in this position? Intended for moves that did not
+   * come from the generator (TT move, killers), which may stem from another position.
+   */
+  boolean isPseudoLegal(long[] packedPosition, int move);
+
+  /**
+   * Rebuilds a full move from its {@link #compact} form by reading the mover off the board. The
+   * result is not validated beyond that; pass it through {@link #isPseudoLegal} before playing it.
+   *
+   * @return the full move, or 0 when {@code compact} is empty or the from-square holds no piece
+   *     of the side to move
+   */
+  int expand(long[] packedPosition, int compact);
 }
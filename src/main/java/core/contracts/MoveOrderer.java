@@ -1,5 +1,7 @@
 package core.contracts;
 
+import core.records.AttackInfo;
+
 /**
  * A service that scores and sorts a list of moves in-place to improve
  * alpha-beta search efficiency. An instance of this class is designed
@@ -37,4 +39,28 @@ public interface MoveOrderer {
         @return The static evaluation of the exchange in centipawns.
     */
     int see(long[] bb, int move);
-}
\ No newline at end of file
+
+    /**
+     * Threshold form of SEE: whether the exchange started by {@code move}
+     * gains at least {@code threshold} centipawns. Stops as soon as the
+     * answer is known, allocates nothing and re-discovers sliders that
+     * become attackers once the piece in front of them has been traded
+     * (x-rays), so batteries are judged correctly.
+     *
+     * @param bb        The current board state.
+     * @param move      The move to evaluate; quiet moves are an exchange of nothing.
+     * @param threshold The gain to reach, in centipawns.
+     * @return True if {@code see(move) >= threshold}.
+     */
+    boolean seeGe(long[] bb, int move, int threshold);
+
+    /**
+     * Like {@link #seeGe(long[], int, int)}, but first consults the node's
+     * attack info: on a square the opponent does not attack, with no enemy
+     * slider that could be uncovered behind the mover, the exchange stops at
+     * the victim and no attackers are computed.
+     *
+     * @param ai The attack info of {@code bb}, as filled by {@link MoveGenerator#computeAttackInfo}.
+     */
+    boolean seeGe(long[] bb, int move, int threshold, AttackInfo ai);
+}
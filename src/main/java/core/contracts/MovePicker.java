@@ -0,0 +1,62 @@
+package core.contracts;
+
+import core.records.AttackInfo;
+
+/**
+ * Hands out the moves of one node lazily, one at a time, in search order.
+ *
+ * <p>Moves are produced in stages so that a node which fails high early never
+ * pays for generating or scoring the moves it does not search:</p>
+ * <ol>
+ *   <li>the transposition-table move,</li>
+ *   <li>good captures (MVV-LVA refined by capture history, SEE checked only when reached),</li>
+ *   <li>killer moves,</li>
+ *   <li>quiet moves (generated only once the earlier stages are exhausted),
+ *       the counter move to the previous move first, then by butterfly plus
+ *       one- and two-ply continuation history,</li>
+ *   <li>bad captures.</li>
+ * </ol>
+ *
+ * An instance is bound to one ply of one search thread and is re-initialised
+ * at every node; it never allocates.
+ */
+public interface MovePicker {
+
+    /** Sentinel returned by {@link #next()} once every stage is exhausted. */
+    int NONE = 0;
+
+    /**
+     * Prepares the picker for a full-width node.
+     *
+     * @param bb      The current board state; must not change until the picker is exhausted
+     *                except by make/undo pairs.
+     * @param ttMove  The move from the transposition table in {@link MoveGenerator#compact compact}
+     *                form, or 0.
+     * @param killers The compact killer moves of this ply (two entries, 0 when empty).
+     * @param ai      The node's attack info from {@link MoveGenerator#computeAttackInfo}; evasions
+     *                are picked when it shows a check, and it is used to filter illegal moves.
+     * @param cont1   Offset of the continuation-history row of the move one ply back; it also
+     *                selects the counter move.
+     * @param cont2   Offset of the row of the move two plies back; either is
+     *                {@link core.constants.CoreConstants#CONT_NONE} when there is no such move.
+     */
+    void init(long[] bb, int ttMove, short[] killers, AttackInfo ai, int cont1, int cont2);
+
+    /**
+     * Prepares the picker for a quiescence node: evasions when in check,
+     * otherwise only captures that do not lose material.
+     */
+    void initQuiescence(long[] bb, AttackInfo ai);
+
+    /**
+     * Prepares the picker for ProbCut: only captures whose static exchange
+     * gain is at least {@code threshold}. The side to move must not be in check.
+     */
+    void initProbCut(long[] bb, int threshold, AttackInfo ai);
+
+    /**
+     * @return The next legal move, or {@link #NONE} when there are no more. Moves may be
+     *         played with {@link PositionFactory#makeLegalMoveInPlace}.
+     */
+    int next();
+}
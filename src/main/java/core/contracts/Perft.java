@@ -0,0 +1,47 @@
+package core.contracts;
+
+/**
+ * Move-path enumeration used to validate the move generator.
+ *
+ * <p>Leaf nodes are bulk-counted (depth 1 returns the number of legal moves
+ * without playing them), subtree counts are cached in a hash table keyed by
+ * Zobrist key and remaining depth, and the root moves are distributed over a
+ * fork/join pool. None of this changes the numbers: every implementation must
+ * return exactly the classic perft count.</p>
+ */
+public interface Perft extends AutoCloseable {
+
+    /** Deepest perft supported; bounded by the per-ply move buffers. */
+    int MAX_DEPTH = 64;
+
+    /**
+     * Receives one line of a "divide": a root move and the size of its subtree.
+     */
+    @FunctionalInterface
+    interface DivideHandler {
+        void onMove(int move, long nodes);
+    }
+
+    /**
+     * @param bb    The root position; left unchanged.
+     * @param depth The number of plies to enumerate (0 ≤ depth ≤ {@link #MAX_DEPTH}).
+     * @return The number of leaf nodes at {@code depth}.
+     */
+    long perft(long[] bb, int depth);
+
+    /**
+     * Like {@link #perft} but reports the count below every root move.
+     * The handler is called on the caller's thread, once per legal root move,
+     * in generation order.
+     *
+     * @return The total over all root moves.
+     */
+    long divide(long[] bb, int depth, DivideHandler handler);
+
+    /** Forgets every cached subtree count. */
+    void clear();
+
+    /** Shuts down the worker pool. */
+    @Override
+    void close();
+}
@@ -1,5 +1,7 @@
 package core.contracts;
 
+import core.constants.CoreConstants;
+
 public interface PositionFactory {
 
   /* ───────── Piece indices ──────── */
@@ -11,9 +13,10 @@ public interface PositionFactory {
 
   /* ───────── Board array layout (indices) ───────── */
   int HASH      = 15; // 64-bit Zobrist key
-  int COOKIE_SP = 16; // stack pointer
-  int COOKIE_BASE = 17;
-  int COOKIE_CAP  = 1000;
+  int MAILBOX   = 16; // 8 longs = 64 bytes, one per square: piece index + 1, 0 = empty
+  int COOKIE_SP = 24; // stack pointer
+  int COOKIE_BASE = 25;
+  int COOKIE_CAP  = CoreConstants.MAX_PLY + 1; // one undo cookie per ply of a single search
   int BB_LEN      = COOKIE_BASE + COOKIE_CAP; // New total length
 
   long EP_NONE = 63;
@@ -29,6 +32,8 @@ public interface PositionFactory {
 
   /* fast helpers – **signatures only** */
   boolean makeMoveInPlace(long[] bb, int move, MoveGenerator gen);
+  /** Plays a move already known to be legal – no castling or king-safety probe. */
+  void makeLegalMoveInPlace(long[] bb, int move);
   void undoMoveInPlace(long[] bb);
 
   long[] fromFen(String fen);
@@ -40,6 +45,20 @@ public interface PositionFactory {
   long zobrist50(long[] bb);
   boolean hasNonPawnMaterial(long[] bb);
 
+  /**
+   * Forgets the undo history: the current position becomes the bottom of the cookie stack. The
+   * stack only has room for one search, so call this after every move that will never be undone
+   * (game moves from "position … moves", self-play).
+   */
+  static void clearUndoStack(long[] bb) {
+    bb[COOKIE_SP] = 0;
+  }
+
+  /** @return the piece index (WP … BK) on {@code sq}, or -1 when the square is empty */
+  static int pieceAt(long[] bb, int sq) {
+    return (int) (bb[MAILBOX + (sq >>> 3)] >>> ((sq & 7) << 3) & 0xFF) - 1;
+  }
+
   static boolean whiteToMove(long meta) {
     return (meta & STM_MASK) == 0;
   }
@@ -2,6 +2,7 @@ package core.contracts;
 
 import core.records.SearchResult;
 import core.records.SearchSpec;
+import core.records.SearchStats;
 
 import java.util.concurrent.CompletableFuture;
 
@@ -16,6 +17,15 @@ public interface Search extends AutoCloseable {
 
     void stop();
     void ponderHit();
+
+    /** Starts a new game: move-ordering statistics from earlier searches are dropped. */
+    void clearHistory();
+
+    /**
+     * Statistics of the last search, summed over the workers. Empty unless
+     * the engine runs with {@code -Dhelios.stats=true}.
+     */
+    SearchStats getStats();
     @Override
     void close();
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package core.contracts;
 
 import core.records.SearchResult;
 import core.records.SearchSpec;
+import core.records.SearchStats;
 
 public interface SearchWorker {
     void prepareForSearch(long[] bb, SearchSpec spec, PositionFactory pf, MoveGenerator mg, TranspositionTable tt, TimeManager tm);
@@ -10,4 +11,14 @@ public interface SearchWorker {
     void setInfoHandler(InfoHandler handler);
     void join() throws InterruptedException; // Added for thread management
     long getNodes();
+
+    /** Statistics of the last search; only filled when {@link SearchStats#ENABLED}. */
+    SearchStats getStats();
+
+    /**
+     * Forgets the move-ordering statistics (history tables and counter moves)
+     * that otherwise persist from one search to the next. Only called while
+     * the worker is idle.
+     */
+    void clearHistory();
 }
@@ -9,7 +9,9 @@ import static core.constants.CoreConstants.SCORE_NONE;
  * Lock-free transposition-table abstraction using a flat long[] for entries.
  * This design achieves **zero allocations** on the hot path.
  *
- * Each entry is 16 bytes (2 longs).
+ * Entries are packed into a single long and grouped three to a 32-byte bucket
+ * together with their 16-bit key checks. Moves are kept in their 16-bit
+ * {@link MoveGenerator#compact compact} form.
  *
  * • Call {@link #resize(int)} once at start-up or after a "setoption Hash" change.
  * • Call {@link #clear()} at the beginning of every *game*.
@@ -19,7 +21,7 @@ import static core.constants.CoreConstants.SCORE_NONE;
  * Test the returned index with {@link #wasHit(int, long)} to know which one it is.
  */
 public interface TranspositionTable {
-    /* ─────────── Bound Flags (Lower 2 bits of packed meta-data) ────────── */
+    /* ─────────── Bound Flags (2 bits of the packed entry) ────────── */
 
     int FLAG_NONE = 0;
     int FLAG_LOWER = 1;
@@ -33,7 +35,6 @@ public interface TranspositionTable {
      *
      * @param zobrist The Zobrist key of the position.
      * @return The array index for a matching entry or for a victim entry to be replaced.
-     * The index always points to the first of two longs representing the entry.
      */
     int probe(long zobrist);
 
@@ -51,6 +52,7 @@ public interface TranspositionTable {
 
     int getDepth(int entryIndex);
     int getBound(int entryIndex);
+    /** @return The stored move in its compact form; rebuild it with {@link MoveGenerator#expand}. */
     int getMove(int entryIndex);
     int getStaticEval(int entryIndex);
     boolean wasPv(int entryIndex);
@@ -85,7 +87,7 @@ public interface TranspositionTable {
      * @param zobrist    The Zobrist key of the position.
      * @param bound      The bound type (FLAG_EXACT, FLAG_LOWER, FLAG_UPPER).
      * @param depth      The search depth for this entry.
-     * @param move       The best move found.
+     * @param move       The best move found; only its compact form is kept.
      * @param score      The score of the position.
      * @param staticEval The static evaluation of the position.
      * @param isPv       Whether this was a PV node.
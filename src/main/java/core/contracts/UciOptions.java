@@ -12,15 +12,15 @@ public interface UciOptions {
      * to the corresponding engine parameter.
      *
      * @param line The full "setoption ..." command line from the GUI.
+     * @param out  Receives an "info string" line if the option is unknown or the value rejected.
      */
-    void setOption(String line);
+    void setOption(String line, UciOutput out);
 
     /**
-     * Prints all available UCI options to standard output in the format
-     * required by the UCI protocol. This is typically sent in response
-     * to the "uci" command.
+     * Prints all available UCI options in the format required by the UCI
+     * protocol. This is typically sent in response to the "uci" command.
      */
-    void printOptions();
+    void printOptions(UciOutput out);
 
     /**
      * Provides access to the transposition table, allowing options
@@ -0,0 +1,26 @@
+package core.contracts;
+
+/**
+ * The engine's side of the UCI channel.
+ *
+ * <p>Callers on any thread hand over complete lines and return at once; the
+ * text is written and flushed by the implementation, so a search thread never
+ * waits on a slow GUI pipe. Lines appear in the order they were handed over,
+ * except that search progress lines may be thinned out (see {@link #info}).</p>
+ */
+public interface UciOutput extends AutoCloseable {
+
+    /** Queues one line. {@code bestmove}, {@code readyok} and {@code uciok} are flushed immediately. */
+    void println(String line);
+
+    /**
+     * Queues a search progress line that may be dropped in favour of a newer
+     * one. At most one such line is written per rate-limit interval; a pending
+     * progress line is always written before the next {@link #println} line,
+     * so the last {@code info} of a search precedes its {@code bestmove}.
+     */
+    void info(String line);
+
+    /** Writes everything still queued and stops the writer. */
+    @Override void close();
+}
@@ -2,6 +2,7 @@ package core.contracts;
 
 import core.records.SearchResult;
 import core.records.SearchSpec;
+import core.records.SearchStats;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -14,9 +15,23 @@ public interface WorkerPool extends AutoCloseable {
     CompletableFuture<SearchResult> startSearch(long[] root, SearchSpec spec, PositionFactory pf, MoveGenerator mg, TranspositionTable tt, TimeManager tm, InfoHandler ih);
 
     void stopSearch();
+
+    /**
+     * Converts a running {@code go ponder} search into a normal clocked search.
+     * Time already spent pondering is charged against the fresh allocation.
+     * Has no effect if the current search is not pondering.
+     */
+    void ponderHit();
+
+    /** Clears every worker's move-ordering statistics, e.g. for a new game. */
+    void clearHistory();
+
     AtomicBoolean getStopFlag();
     long totalNodes();
 
+    /** Sum of every worker's statistics for the last search. */
+    SearchStats collectStats();
+
     /* infra */
     @Override void close();
 
@@ -0,0 +1,302 @@
+package core.impl;
+
+import core.contracts.MoveGenerator;
+import core.contracts.PositionFactory;
+import core.contracts.Search;
+import core.contracts.TranspositionTable;
+import core.records.SearchResult;
+import core.records.SearchSpec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static core.contracts.PositionFactory.*;
+
+/**
+ * Self-play training data for the NNUE, written in bulletformat's packed
+ * 32-byte board records.
+ *
+ * <p>Every thread plays whole games on its own one-worker {@link SearchImpl}
+ * and TT, so games share nothing but the game counter and the output
+ * channel and throughput grows with the core count. A game starts with a few
+ * random legal plies, then both sides play node-limited searches until
+ * mate, a rule draw, or adjudication. Quiet positions are kept with the
+ * search score; once the game is decided their result is filled in and the
+ * whole game is copied into the thread's write buffer, which goes to the
+ * channel in one piece when it is full.</p>
+ */
+public final class DataGen implements AutoCloseable {
+
+    /** Size of one packed board: occ(8) pieces(16) score(2) result(1) ksq(1) oppKsq(1) pad(3). */
+    public static final int RECORD_BYTES = 32;
+    private static final int RESULT_OFFSET = 26;
+
+    private static final int MAX_GAME_PLIES = 600;
+    /** A start position whose first search is beyond this is discarded as lopsided. */
+    private static final int OPENING_MAX_SCORE = 1000;
+    private static final int WIN_SCORE = 2500, WIN_PLIES = 4;
+    private static final int DRAW_SCORE = 10, DRAW_PLIES = 10, DRAW_MIN_PLY = 80;
+    private static final int SCORE_CLAMP = 32000;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+    private static final int LIST_CAP = 256;
+    private static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    /** Totals so far; {@code positions} counts written records. */
+    public record Summary(long games, long positions, long whiteWins, long draws, long blackWins) {}
+
+    private final PositionFactory pf;
+    private final MoveGenerator mg;
+    private final List<Search> searches = new ArrayList<>();
+    private final List<TranspositionTable> tts = new ArrayList<>();
+
+    private final AtomicLong games = new AtomicLong(), positions = new AtomicLong();
+    private final AtomicLong whiteWins = new AtomicLong(), draws = new AtomicLong(), blackWins = new AtomicLong();
+
+    /**
+     * @param threads Number of concurrent games.
+     * @param hashMb  TT size of every game in MiB.
+     */
+    public DataGen(PositionFactory pf, MoveGenerator mg, int threads, int hashMb) {
+        if (threads < 1 || hashMb < 1) throw new IllegalArgumentException("threads=" + threads + " hashMb=" + hashMb);
+        this.pf = pf;
+        this.mg = mg;
+        for (int i = 0; i < threads; i++) {
+            TranspositionTable tt = new TranspositionTableImpl(hashMb);
+            Search search = new SearchImpl(pf, mg,
+                    new WorkerPoolImpl(1, (isMain, p) -> new SearchWorkerImpl(isMain, (WorkerPoolImpl) p)),
+                    new TimeManagerImpl());
+            search.setTranspositionTable(tt);
+            tts.add(tt);
+            searches.add(search);
+        }
+    }
+
+    /**
+     * Plays {@code gameCount} games and appends their positions to {@code out}.
+     * {@code progress} is called on the caller's thread about every
+     * {@code progressMs} while the games run.
+     *
+     * @param nodes       Node budget of every search.
+     * @param randomPlies Random legal plies played from the start position.
+     */
+    public Summary run(FileChannel out, long gameCount, long nodes, int randomPlies, long seed,
+                       long progressMs, Consumer<Summary> progress) throws IOException {
+        AtomicLong gamesLeft = new AtomicLong(gameCount);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        SplittableRandom seeds = new SplittableRandom(seed);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < searches.size(); i++) {
+            Game game = new Game(searches.get(i), tts.get(i), seeds.split(), nodes, randomPlies, out);
+            Thread t = new Thread(() -> {
+                try {
+                    while (gamesLeft.getAndDecrement() > 0 && failure.get() == null) game.play();
+                    game.flush();
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "Helios-DataGen-" + i);
+            t.setDaemon(true);
+            threads.add(t);
+            t.start();
+        }
+
+        try {
+            for (Thread t : threads) {
+                while (t.isAlive()) {
+                    t.join(progressMs);
+                    if (t.isAlive()) progress.accept(summary());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        Throwable f = failure.get();
+        if (f instanceof UncheckedIOException u) throw u.getCause();
+        if (f instanceof RuntimeException r) throw r;
+        if (f instanceof Error err) throw err;
+        return summary();
+    }
+
+    private Summary summary() {
+        return new Summary(games.get(), positions.get(), whiteWins.get(), draws.get(), blackWins.get());
+    }
+
+    /**
+     * Packs {@code bb} as a bulletformat board: seen from the side to move
+     * (mirrored vertically and colours swapped when black is to move), with the
+     * pieces as 4-bit {@code colour << 3 | type} codes in square order. The
+     * result byte is written as 0 and filled in by {@link #setResult}.
+     *
+     * @param stmScore Score from the side to move's point of view.
+     */
+    public static void encode(long[] bb, int stmScore, ByteBuffer dst) {
+        boolean white = whiteToMove(bb[META]);
+        long occ = 0;
+        for (int p = WP; p <= BK; p++) occ |= bb[p];
+        if (!white) occ = Long.reverseBytes(occ);
+
+        long pcs0 = 0, pcs1 = 0;
+        int idx = 0;
+        for (long o = occ; o != 0; o &= o - 1, idx++) {
+            int sq = Long.numberOfTrailingZeros(o);
+            int piece = pieceAt(bb, white ? sq : sq ^ 56);
+            boolean ours = (piece < 6) == white;
+            long code = (ours ? 0 : 8) | (piece % 6);
+            if (idx < 16) pcs0 |= code << (4 * idx);
+            else          pcs1 |= code << (4 * (idx - 16));
+        }
+
+        int ksq    = white ? Long.numberOfTrailingZeros(bb[WK]) : Long.numberOfTrailingZeros(bb[BK]) ^ 56;
+        int oppKsq = white ? Long.numberOfTrailingZeros(bb[BK]) ^ 56 : Long.numberOfTrailingZeros(bb[WK]);
+
+        ByteOrder order = dst.order();
+        dst.order(ByteOrder.LITTLE_ENDIAN);
+        dst.putLong(occ).putLong(pcs0).putLong(pcs1);
+        dst.putShort((short) Math.max(-SCORE_CLAMP, Math.min(SCORE_CLAMP, stmScore)));
+        dst.put((byte) 0).put((byte) ksq).put((byte) oppKsq);
+        dst.put((byte) 0).put((byte) 0).put((byte) 0);
+        dst.order(order);
+    }
+
+    /** Sets the result of the record at {@code offset}: 2 win, 1 draw, 0 loss for its side to move. */
+    public static void setResult(ByteBuffer dst, int offset, boolean whiteToMove, int whiteResult) {
+        dst.put(offset + RESULT_OFFSET, (byte) (whiteToMove ? whiteResult : 2 - whiteResult));
+    }
+
+    /** One thread's games; everything here is confined to that thread. */
+    private final class Game {
+        private final Search search;
+        private final TranspositionTable tt;
+        private final SplittableRandom rng;
+        private final SearchSpec.Builder spec;
+        private final FileChannel out;
+
+        private final ByteBuffer records = ByteBuffer.allocate(MAX_GAME_PLIES * RECORD_BYTES);
+        private final boolean[] recordWhite = new boolean[MAX_GAME_PLIES];
+        private final ByteBuffer writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+        private final List<Long> keys = new ArrayList<>();
+        private final int[] moves = new int[LIST_CAP];
+        private final int randomPlies;
+
+        Game(Search search, TranspositionTable tt, SplittableRandom rng, long nodes, int randomPlies, FileChannel out) {
+            this.search = search;
+            this.tt = tt;
+            this.rng = rng;
+            this.spec = new SearchSpec.Builder().nodes(nodes);
+            this.randomPlies = randomPlies;
+            this.out = out;
+        }
+
+        void play() throws IOException {
+            int whiteResult;
+            do {
+                whiteResult = playOnce();
+            } while (whiteResult < 0);
+
+            int n = records.position() / RECORD_BYTES;
+            for (int i = 0; i < n; i++) setResult(records, i * RECORD_BYTES, recordWhite[i], whiteResult);
+            records.flip();
+            if (writeBuffer.remaining() < records.remaining()) flush();
+            writeBuffer.put(records);
+
+            games.incrementAndGet();
+            positions.addAndGet(n);
+            (whiteResult == 2 ? whiteWins : whiteResult == 1 ? draws : blackWins).incrementAndGet();
+        }
+
+        /** @return 2, 1 or 0 for a white win, draw or black win; -1 when the opening was unusable */
+        private int playOnce() {
+            records.clear();
+            keys.clear();
+            tt.clear();
+            search.clearHistory();
+
+            long[] pos = pf.fromFen(START_FEN);
+            for (int i = 0; i < randomPlies; i++) {
+                int n = mg.generateLegal(pos, moves, 0);
+                if (n == 0) return -1;
+                play(pos, moves[rng.nextInt(n)]);
+            }
+
+            int winPlies = 0, drawPlies = 0;
+            for (int ply = 0; ply < MAX_GAME_PLIES; ply++) {
+                boolean white = whiteToMove(pos[META]);
+                boolean inCheck = mg.kingAttacked(pos, white);
+                if (mg.generateLegal(pos, moves, 0) == 0) return inCheck ? (white ? 0 : 2) : 1;
+                if (halfClock(pos[META]) >= 100 || repeated(pos) || insufficientMaterial(pos)) return 1;
+
+                SearchResult r = search.search(pos, spec.history(new ArrayList<>(keys)).build(), null);
+                int score = r.scoreCp();
+                if (ply == 0 && Math.abs(score) > OPENING_MAX_SCORE) return -1;
+
+                int whiteScore = white ? score : -score;
+                if (r.mateFound()) return whiteScore > 0 ? 2 : 0;
+                // winPlies counts consecutive decisive scores, positive while white is winning
+                int side = Integer.signum(whiteScore);
+                if (Math.abs(score) < WIN_SCORE) winPlies = 0;
+                else winPlies = Integer.signum(winPlies) == side ? winPlies + side : side;
+                drawPlies = Math.abs(score) <= DRAW_SCORE ? drawPlies + 1 : 0;
+                if (Math.abs(winPlies) >= WIN_PLIES) return winPlies > 0 ? 2 : 0;
+                if (ply >= DRAW_MIN_PLY && drawPlies >= DRAW_PLIES) return 1;
+
+                int best = r.bestMove();
+                if (!inCheck && !isNoisy(pos, best)) {
+                    recordWhite[records.position() / RECORD_BYTES] = white;
+                    encode(pos, score, records);
+                }
+                play(pos, best);
+            }
+            return 1;
+        }
+
+        private void play(long[] pos, int mv) {
+            long key = pos[HASH];
+            if (!pf.makeMoveInPlace(pos, mv, mg)) throw new IllegalStateException("illegal move " + mv);
+            PositionFactory.clearUndoStack(pos);   // games outlast the per-search undo stack
+            keys.add(key);
+        }
+
+        /** Two-fold repetition within the reversible part of the game. */
+        private boolean repeated(long[] pos) {
+            long key = pos[HASH];
+            int stop = Math.max(0, keys.size() - (int) halfClock(pos[META]));
+            for (int i = keys.size() - 2; i >= stop; i -= 2)
+                if (keys.get(i) == key) return true;
+            return false;
+        }
+
+        void flush() throws IOException {
+            writeBuffer.flip();
+            synchronized (out) {
+                while (writeBuffer.hasRemaining()) out.write(writeBuffer);
+            }
+            writeBuffer.clear();
+        }
+    }
+
+    private static boolean isNoisy(long[] pos, int mv) {
+        int flags = (mv >>> 14) & 3;
+        return flags == 1 || flags == 2 || pieceAt(pos, mv & 63) >= 0;
+    }
+
+    private static boolean insufficientMaterial(long[] bb) {
+        if ((bb[WP] | bb[BP] | bb[WR] | bb[BR] | bb[WQ] | bb[BQ]) != 0) return false;
+        return Long.bitCount(bb[WN] | bb[BN] | bb[WB] | bb[BB]) <= 1;
+    }
+
+    @Override
+    public void close() {
+        searches.forEach(Search::close);
+    }
+}
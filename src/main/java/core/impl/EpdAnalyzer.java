@@ -0,0 +1,210 @@
+package core.impl;
+
+import core.contracts.MoveGenerator;
+import core.contracts.PositionFactory;
+import core.contracts.Search;
+import core.contracts.TranspositionTable;
+import core.records.SearchResult;
+import core.records.SearchSpec;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Throughput-mode analysis of an EPD stream: many positions, one
+ * single-threaded search per core.
+ *
+ * <p>Lazy SMP on one position buys little per extra thread; independent
+ * searches of different positions scale almost linearly. Each shard owns a
+ * one-worker {@link SearchImpl} and a private TT, and takes the next position
+ * off a shared queue, so a slow position never stalls the others. Before each
+ * position the shard clears its TT and history tables: a result depends only
+ * on the position and the limits, never on which shard searched it or what it
+ * searched before, so the output is identical for any shard count.</p>
+ *
+ * <p>Results are handed to the sink on one thread at a time, in input order.
+ * At most {@link #WINDOW_PER_SHARD} positions per shard may be read ahead of
+ * the oldest unfinished one, which bounds memory however long the file is.</p>
+ */
+public final class EpdAnalyzer implements AutoCloseable {
+
+    private static final int WINDOW_PER_SHARD = 64;
+    private static final Pattern ID = Pattern.compile("\\bid\\s+\"([^\"]*)\"");
+
+    /** One analysed position; {@code index} counts positions from 0 in input order. */
+    public record Result(long index, String id, SearchResult search) {
+        /** {@code id <id> bestmove <uci> score <cp|mate> depth <d> nodes <n> pv ...} */
+        public String line() {
+            StringBuilder sb = new StringBuilder("id ").append(id)
+                    .append(" bestmove ").append(UciHandlerImpl.UciMove.moveToUci(search.bestMove()))
+                    .append(" score ").append(UciHandlerImpl.UciScore.format(search.scoreCp(), search.mateFound()))
+                    .append(" depth ").append(search.depth())
+                    .append(" nodes ").append(search.nodes())
+                    .append(" pv");
+            for (int mv : search.pv()) sb.append(' ').append(UciHandlerImpl.UciMove.moveToUci(mv));
+            return sb.toString();
+        }
+    }
+
+    /** Totals of one {@link #analyze} call; {@code skipped} counts lines that were not a position. */
+    public record Summary(long positions, long skipped, long nodes) {}
+
+    private record Job(long index, String id, long[] board) {}
+    private static final Job POISON = new Job(-1, null, null);
+
+    private final PositionFactory pf;
+    private final List<Search> searches = new ArrayList<>();
+    private final List<TranspositionTable> tts = new ArrayList<>();
+
+    /**
+     * @param shards Number of independent searches (usually the core count).
+     * @param hashMb TT size of every shard in MiB.
+     */
+    public EpdAnalyzer(PositionFactory pf, MoveGenerator mg, int shards, int hashMb) {
+        if (shards < 1 || hashMb < 1) throw new IllegalArgumentException("shards=" + shards + " hashMb=" + hashMb);
+        this.pf = pf;
+        for (int i = 0; i < shards; i++) {
+            TranspositionTable tt = new TranspositionTableImpl(hashMb);
+            Search search = new SearchImpl(pf, mg,
+                    new WorkerPoolImpl(1, (isMain, p) -> new SearchWorkerImpl(isMain, (WorkerPoolImpl) p)),
+                    new TimeManagerImpl());
+            search.setTranspositionTable(tt);
+            tts.add(tt);
+            searches.add(search);
+        }
+    }
+
+    /**
+     * Searches every position in {@code epd} with {@code spec} and passes the
+     * results to {@code sink} in input order. Blank lines and lines starting
+     * with '#' are ignored; lines that do not parse are skipped. A position
+     * without an {@code id "..."} operation is tagged with its 1-based index.
+     */
+    public Summary analyze(BufferedReader epd, SearchSpec spec, Consumer<Result> sink) throws IOException {
+        int shards = searches.size();
+        BlockingQueue<Job> jobs = new ArrayBlockingQueue<>(shards * 4);
+        Semaphore window = new Semaphore(shards * WINDOW_PER_SHARD);
+        Reorder reorder = new Reorder(sink, window);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        List<Thread> threads = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            Search search = searches.get(i);
+            TranspositionTable tt = tts.get(i);
+            Thread t = new Thread(() -> {
+                try {
+                    for (Job job; (job = jobs.take()) != POISON; ) {
+                        if (failure.get() != null) continue;          // keep draining so the reader never blocks
+                        try {
+                            tt.clear();
+                            search.clearHistory();
+                            reorder.deliver(new Result(job.index, job.id, search.search(job.board, spec, null)));
+                        } catch (Throwable e) {
+                            // the failed position never reaches the sink; open the window for good
+                            if (failure.compareAndSet(null, e)) window.release(Integer.MAX_VALUE / 2);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "Helios-Analyze-" + i);
+            t.setDaemon(true);
+            threads.add(t);
+            t.start();
+        }
+
+        long positions = 0, skipped = 0;
+        try {
+            for (String line; (line = epd.readLine()) != null && failure.get() == null; ) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                Job job = parse(positions, line);
+                if (job == null) { skipped++; continue; }
+                window.acquire();
+                jobs.put(job);
+                positions++;
+            }
+        } catch (IOException e) {
+            // the shards skip what is still queued; the read error is rethrown below
+            failure.compareAndSet(null, new UncheckedIOException(e));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // on every way out: a shard left waiting in take() would hold its Search forever
+            stopShards(jobs, threads);
+        }
+
+        Throwable f = failure.get();
+        if (f instanceof UncheckedIOException u) throw u.getCause();
+        if (f instanceof RuntimeException r) throw r;
+        if (f instanceof Error err) throw err;
+        return new Summary(positions, skipped, reorder.nodes);
+    }
+
+    /** Ends every shard: poison and join them, or interrupt them if this thread is interrupted. */
+    private static void stopShards(BlockingQueue<Job> jobs, List<Thread> threads) {
+        try {
+            for (int i = 0; i < threads.size(); i++) jobs.put(POISON);
+            for (Thread t : threads) t.join();
+        } catch (InterruptedException e) {
+            threads.forEach(Thread::interrupt);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** EPD (four fields, then operations) or FEN; the clocks default to "0 1". */
+    private Job parse(long index, String line) {
+        String[] f = line.split("\\s+");
+        if (f.length < 4) return null;
+        boolean clocks = f.length >= 6 && f[4].matches("\\d+") && f[5].matches("\\d+");
+        String fen = f[0] + ' ' + f[1] + ' ' + f[2] + ' ' + f[3] + (clocks ? " " + f[4] + ' ' + f[5] : " 0 1");
+        long[] board;
+        try {
+            board = pf.fromFen(fen);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        Matcher m = ID.matcher(line);
+        return new Job(index, m.find() ? m.group(1) : String.valueOf(index + 1), board);
+    }
+
+    /** Holds finished results until every earlier one has been handed to the sink. */
+    private static final class Reorder {
+        private final Consumer<Result> sink;
+        private final Semaphore window;
+        private final Map<Long, Result> waiting = new HashMap<>();
+        private long next;
+        long nodes;
+
+        Reorder(Consumer<Result> sink, Semaphore window) {
+            this.sink = sink;
+            this.window = window;
+        }
+
+        synchronized void deliver(Result r) {
+            waiting.put(r.index, r);
+            for (Result ready; (ready = waiting.remove(next)) != null; next++) {
+                nodes += ready.search.nodes();
+                sink.accept(ready);
+                window.release();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        searches.forEach(Search::close);
+    }
+}
@@ -4,6 +4,7 @@ import static core.impl.PreCompMoveGenTables.*;
 import static core.contracts.PositionFactory.*;
 
 import core.contracts.*;
+import core.records.AttackInfo;
 
 public final class MoveGeneratorImpl implements MoveGenerator {
   /* ── bit-board constants ─────────────────────────────────────── */
@@ -332,6 +333,137 @@ public final class MoveGeneratorImpl implements MoveGenerator {
     return n;
   }
 
+  @Override
+  public int generateLegal(long[] bb, int[] mv, int n) {
+    final boolean white = whiteToMove(bb[META]);
+    final long occ = bb[WP] | bb[WN] | bb[WB] | bb[WR] | bb[WQ] | bb[WK]
+                   | bb[BP] | bb[BN] | bb[BB] | bb[BR] | bb[BQ] | bb[BK];
+    final long threats = threats(bb, white, occ);
+    int end = (threats & bb[white ? WK : BK]) != 0
+            ? generateEvasions(bb, mv, n)
+            : generateQuiets(bb, mv, generateCaptures(bb, mv, n));
+
+    long pinned = pinnedPieces(bb);
+    int w = n;
+    for (int i = n; i < end; i++) {
+      if (legal(bb, mv[i], white, occ, pinned, threats)) mv[w++] = mv[i];
+    }
+    return w;
+  }
+
+  @Override
+  public void computeAttackInfo(long[] bb, AttackInfo ai) {
+    final boolean white = whiteToMove(bb[META]);
+    final long occ = bb[WP] | bb[WN] | bb[WB] | bb[WR] | bb[WQ] | bb[WK]
+                   | bb[BP] | bb[BN] | bb[BB] | bb[BR] | bb[BQ] | bb[BK];
+    final long threats = threats(bb, white, occ);
+    ai.threats  = threats;
+    ai.checkers = (threats & bb[white ? WK : BK]) != 0
+            ? attackersToSquare(bb, occ, Long.numberOfTrailingZeros(bb[white ? WK : BK]), white)
+            : 0L;
+    ai.pinned   = pinnedPieces(bb);
+  }
+
+  @Override
+  public boolean isLegal(long[] bb, int move, AttackInfo ai) {
+    final long occ = bb[WP] | bb[WN] | bb[WB] | bb[WR] | bb[WQ] | bb[WK]
+                   | bb[BP] | bb[BN] | bb[BB] | bb[BR] | bb[BQ] | bb[BK];
+    return legal(bb, move, whiteToMove(bb[META]), occ, ai.pinned, ai.threats);
+  }
+
+  /** Legality of a pseudo-legal move given the pin set and the enemy attack map (king lifted). */
+  private static boolean legal(long[] bb, int move, boolean white, long occ, long pinned, long threats) {
+    final int from  = (move >>> 6) & 0x3F;
+    final int to    = move & 0x3F;
+    final int flags = (move >>> 14) & 0x3;
+    final int kSq   = Long.numberOfTrailingZeros(bb[white ? WK : BK]);
+
+    if (from == kSq) {
+      if (flags == 3) {
+        /* origin, transit and target must all be safe; rights and path were checked on generation */
+        long path = (1L << from) | (1L << ((from + to) >>> 1)) | (1L << to);
+        return (threats & path) == 0;
+      }
+      return (threats & (1L << to)) == 0;
+    }
+
+    if (flags == 2) {
+      /* en passant removes two pieces from one rank – re-check the sliders */
+      int capSq = white ? to - 8 : to + 8;
+      long after = (occ ^ (1L << from) ^ (1L << capSq)) | (1L << to);
+      long rq = white ? bb[BR] | bb[BQ] : bb[WR] | bb[WQ];
+      long bq = white ? bb[BB] | bb[BQ] : bb[WB] | bb[WQ];
+      return (rookAtt(after, kSq) & rq) == 0 && (bishopAtt(after, kSq) & bq) == 0;
+    }
+
+    return (pinned & (1L << from)) == 0 || (LINE[kSq * 64 + from] & (1L << to)) != 0;
+  }
+
+  /** Every square the side not to move attacks, with the mover's king lifted off the board. */
+  private static long threats(long[] bb, boolean white, long occ) {
+    final long occNoKing = occ ^ bb[white ? WK : BK];
+    long atk;
+    if (white) {
+      long p = bb[BP];
+      atk = ((p & ~FILE_A) >>> 9) | ((p & ~FILE_H) >>> 7);
+    } else {
+      long p = bb[WP];
+      atk = ((p & ~FILE_A) << 7) | ((p & ~FILE_H) << 9);
+    }
+    for (long k = bb[white ? BN : WN]; k != 0; k &= k - 1) {
+      atk |= KNIGHT_ATK[Long.numberOfTrailingZeros(k)];
+    }
+    for (long d = bb[white ? BB : WB] | bb[white ? BQ : WQ]; d != 0; d &= d - 1) {
+      atk |= bishopAtt(occNoKing, Long.numberOfTrailingZeros(d));
+    }
+    for (long o = bb[white ? BR : WR] | bb[white ? BQ : WQ]; o != 0; o &= o - 1) {
+      atk |= rookAtt(occNoKing, Long.numberOfTrailingZeros(o));
+    }
+    return atk | KING_ATK[Long.numberOfTrailingZeros(bb[white ? BK : WK])];
+  }
+
+  @Override
+  public long pinnedPieces(long[] bb) {
+    boolean white = whiteToMove(bb[META]);
+    final long own   = white ? bb[WP] | bb[WN] | bb[WB] | bb[WR] | bb[WQ] | bb[WK]
+                             : bb[BP] | bb[BN] | bb[BB] | bb[BR] | bb[BQ] | bb[BK];
+    final long enemy = white ? bb[BP] | bb[BN] | bb[BB] | bb[BR] | bb[BQ] | bb[BK]
+                             : bb[WP] | bb[WN] | bb[WB] | bb[WR] | bb[WQ] | bb[WK];
+    int kSq = Long.numberOfTrailingZeros(bb[white ? WK : BK]);
+
+    /* enemy sliders that would hit the king if our own pieces were transparent */
+    long snipers = (rookAtt(enemy, kSq)   & (white ? bb[BR] | bb[BQ] : bb[WR] | bb[WQ]))
+                 | (bishopAtt(enemy, kSq) & (white ? bb[BB] | bb[BQ] : bb[WB] | bb[WQ]));
+
+    long pinned = 0L;
+    while (snipers != 0) {
+      int s = Long.numberOfTrailingZeros(snipers);
+      snipers &= snipers - 1;
+      long blockers = between(kSq, s) & (own | enemy);
+      if ((blockers & (blockers - 1)) == 0) pinned |= blockers & own;
+    }
+    return pinned;
+  }
+
+  @Override
+  public boolean isLegal(long[] bb, int move, long pinned) {
+    final int from  = (move >>> 6) & 0x3F;
+    final int to    = move & 0x3F;
+    final int flags = (move >>> 14) & 0x3;
+    final boolean white = ((move >>> MOVER_SHIFT) & 0xF) < BP;
+    final int kSq = Long.numberOfTrailingZeros(bb[white ? WK : BK]);
+    final long occ = bb[WP] | bb[WN] | bb[WB] | bb[WR] | bb[WQ] | bb[WK]
+                   | bb[BP] | bb[BN] | bb[BB] | bb[BR] | bb[BQ] | bb[BK];
+
+    if (from == kSq) {
+      if (flags == 3) return castleLegal(bb, from, to);
+      /* the king must not shield its own destination from a slider */
+      return attackersToSquare(bb, occ ^ (1L << from), to, white) == 0;
+    }
+
+    return legal(bb, move, white, occ, pinned, /*threats (king moves only)*/0L);
+  }
+
   @Override
   public boolean castleLegal(long[] bb, int from, int to) {
 
@@ -370,6 +502,88 @@ public final class MoveGeneratorImpl implements MoveGenerator {
     return true;
   }
 
+  @Override
+  public int expand(long[] bb, int compact) {
+    compact &= COMPACT_MASK;
+    if (compact == 0) return 0;
+    final int piece = pieceAt(bb, (compact >>> 6) & 0x3F);
+    if (piece < 0 || (piece < BP) != whiteToMove(bb[META])) return 0;
+    return compact | (piece << MOVER_SHIFT);
+  }
+
+  @Override
+  public boolean isPseudoLegal(long[] bb, int move) {
+    if ((move >>> 20) != 0) return false; // bits beyond the mover field are never set
+
+    final int from  = (move >>> 6) & 0x3F;
+    final int to    = move & 0x3F;
+    final int promo = (move >>> 12) & 0x3;
+    final int flags = (move >>> 14) & 0x3;
+    final int mover = (move >>> MOVER_SHIFT) & 0xF;
+
+    final boolean white = whiteToMove(bb[META]);
+    if (mover > BK || (mover < BP) != white) return false;
+    if ((bb[mover] & (1L << from)) == 0) return false;
+    if (flags != 1 && promo != 0) return false;
+
+    final long own   = white ? bb[WP] | bb[WN] | bb[WB] | bb[WR] | bb[WQ] | bb[WK]
+                             : bb[BP] | bb[BN] | bb[BB] | bb[BR] | bb[BQ] | bb[BK];
+    final long enemy = white ? bb[BP] | bb[BN] | bb[BB] | bb[BR] | bb[BQ] | bb[BK]
+                             : bb[WP] | bb[WN] | bb[WB] | bb[WR] | bb[WQ] | bb[WK];
+    final long occ   = own | enemy;
+    final long toBit = 1L << to;
+    if ((own & toBit) != 0) return false;
+
+    final int type = white ? mover : mover - BP;
+    switch (flags) {
+      case 3: { // castling – same preconditions as addKingMovesAndCastle
+        if (type != 5) return false;
+        int rights = (int) ((bb[META] & CR_MASK) >>> CR_SHIFT);
+        if (white) {
+          if (from != 4) return false;
+          if (to == 6) return (rights & 1) != 0 && (bb[WR] & (1L << 7)) != 0 && (occ & 0x60L) == 0;
+          if (to == 2) return (rights & 2) != 0 && (bb[WR] & 1L) != 0 && (occ & 0x0EL) == 0;
+        } else {
+          if (from != 60) return false;
+          if (to == 62) return (rights & 4) != 0 && (bb[BR] & (1L << 63)) != 0 && (occ & 0x6000_0000_0000_0000L) == 0;
+          if (to == 58) return (rights & 8) != 0 && (bb[BR] & (1L << 56)) != 0 && (occ & 0x0E00_0000_0000_0000L) == 0;
+        }
+        return false;
+      }
+      case 2: { // en passant
+        if (type != 0) return false;
+        long ep = (bb[META] & EP_MASK) >>> EP_SHIFT;
+        if (ep == EP_NONE || to != ep) return false;
+        long behind = white ? toBit >>> 8 : toBit << 8;
+        return (enemy & behind & (white ? bb[BP] : bb[WP])) != 0
+                && ((white ? PAWN_ATK_W[from] : PAWN_ATK_B[from]) & toBit) != 0;
+      }
+      default:
+        break;
+    }
+
+    if (type == 0) {
+      boolean promoRank = (toBit & (white ? RANK_8 : RANK_1)) != 0;
+      if ((flags == 1) != promoRank) return false;
+      if (((white ? PAWN_ATK_W[from] : PAWN_ATK_B[from]) & toBit) != 0) return (enemy & toBit) != 0;
+      if ((occ & toBit) != 0) return false;
+      if (to == (white ? from + 8 : from - 8)) return true;
+      return flags == 0
+              && (white ? (from >= 8 && from < 16 && to == from + 16)
+                        : (from >= 48 && from < 56 && to == from - 16))
+              && (occ & (white ? 1L << (from + 8) : 1L << (from - 8))) == 0;
+    }
+    if (flags != 0) return false;
+
+    return switch (type) {
+      case 1 -> (KNIGHT_ATK[from] & toBit) != 0;
+      case 2 -> (bishopAtt(occ, from) & toBit) != 0;
+      case 3 -> (rookAtt(occ, from) & toBit) != 0;
+      case 4 -> (queenAtt(occ, from) & toBit) != 0;
+      default -> (KING_ATK[from] & toBit) != 0;
+    };
+  }
+
   /** EP capture that removes the checking pawn. */
   private static int addEnPassantEvasions(long[] bb, boolean white,
                                           int[] mv, int n, int usP,
@@ -812,13 +1026,14 @@ public final class MoveGeneratorImpl implements MoveGenerator {
     return queenAttMagic(occ, sq);
   }
 
+  /* black magics: the stored mask is the complement of the relevant squares */
   private static long rookAttMagic(long occ, int sq) {
-    int idx = (int) (((occ & R_MASK[sq]) * R_HASH[sq]) >>> 52);
+    int idx = (int) (((occ | R_MASK[sq]) * R_HASH[sq]) >>> 52);
     return LOOKUP_TABLE[R_BASE[sq] + idx];
   }
 
   private static long bishopAttMagic(long occ, int sq) {
-    int idx = (int) (((occ & B_MASK[sq]) * B_HASH[sq]) >>> 55);
+    int idx = (int) (((occ | B_MASK[sq]) * B_HASH[sq]) >>> 55);
     return LOOKUP_TABLE[B_BASE[sq] + idx];
   }
 
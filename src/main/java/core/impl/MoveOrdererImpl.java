@@ -2,6 +2,7 @@ package core.impl;
 
 import core.contracts.MoveOrderer;
 import core.contracts.PositionFactory;
+import core.records.AttackInfo;
 
 import static core.contracts.PositionFactory.META;
 
@@ -32,6 +33,8 @@ public final class MoveOrdererImpl implements MoveOrderer {
 
     // --- Scratch Buffers ---
     private final int[] moveScores = new int[256]; // Assumes max 256 moves
+    private final int[] seeGain = new int[32];     // swap list, reused by every see() call
+    private long lvaBit;                           // attacker found by getLeastValuableAttacker
     private final int[][] history;
 
     // The MVV_LVA_SCORES static block and field have been removed.
@@ -126,7 +129,7 @@ public final class MoveOrdererImpl implements MoveOrderer {
             else return 0; // Not a capture
         }
 
-        int[] gain = new int[32];
+        int[] gain = seeGain;
         int d = 0;
         gain[d] = PIECE_VALUES[victimType];
 
@@ -140,12 +143,11 @@ public final class MoveOrdererImpl implements MoveOrderer {
             d++;
             gain[d] = PIECE_VALUES[moverType] - gain[d - 1];
 
-            long[] outAttackerBit = new long[1];
-            moverType = getLeastValuableAttacker(bb, to, stm, occ, outAttackerBit);
+            moverType = getLeastValuableAttacker(bb, to, stm, occ);
 
             if (moverType == -1) break;
 
-            occ ^= outAttackerBit[0]; // Remove the next attacker
+            occ ^= lvaBit; // Remove the next attacker
             stm = !stm;
         }
 
@@ -156,6 +158,103 @@ public final class MoveOrdererImpl implements MoveOrderer {
         return gain[0];
     }
 
+    @Override
+    public boolean seeGe(long[] bb, int move, int threshold, AttackInfo ai) {
+        int from = (move >>> 6) & 0x3F;
+        int to = move & 0x3F;
+        long sliders = PositionFactory.whiteToMove(bb[META])
+                ? bb[PositionFactory.BB] | bb[PositionFactory.BR] | bb[PositionFactory.BQ]
+                : bb[PositionFactory.WB] | bb[PositionFactory.WR] | bb[PositionFactory.WQ];
+
+        // No recapture now, and none that lifting the mover could reveal: the exchange stops at once.
+        // En passant also lifts the captured pawn, which may uncover a slider on its file.
+        boolean enPassant = ((move >>> 14) & 0x3) == 2;
+        if (!enPassant && (ai.threats & (1L << to)) == 0 && (PreCompMoveGenTables.LINE[from * 64 + to] & sliders) == 0) {
+            return victimValue(bb, move) >= threshold;
+        }
+        return seeGe(bb, move, threshold);
+    }
+
+    @Override
+    public boolean seeGe(long[] bb, int move, int threshold) {
+        int from = (move >>> 6) & 0x3F;
+        int to = move & 0x3F;
+        int flags = (move >>> 14) & 0x3;
+        if (flags == 3) return threshold <= 0;             // castling never puts material en prise
+
+        // swap is what the side that just captured is ahead of the threshold;
+        // it must stay >= 0 for that side, or the opponent simply stops.
+        int swap = victimValue(bb, move) - threshold;
+        if (swap < 0) return false;
+        swap = PIECE_VALUES[getMoverPieceType(move)] - swap;
+        if (swap <= 0) return true;                         // even losing the mover keeps the threshold
+
+        boolean stm = PositionFactory.whiteToMove(bb[META]);
+        long white = bb[PositionFactory.WP] | bb[PositionFactory.WN] | bb[PositionFactory.WB]
+                | bb[PositionFactory.WR] | bb[PositionFactory.WQ] | bb[PositionFactory.WK];
+        long black = bb[PositionFactory.BP] | bb[PositionFactory.BN] | bb[PositionFactory.BB]
+                | bb[PositionFactory.BR] | bb[PositionFactory.BQ] | bb[PositionFactory.BK];
+        long occ = (white | black) ^ (1L << from) ^ (1L << to);
+        if (flags == 2) occ ^= 1L << (stm ? to - 8 : to + 8);  // the pawn taken en passant
+
+        long diag = bb[PositionFactory.WB] | bb[PositionFactory.BB] | bb[PositionFactory.WQ] | bb[PositionFactory.BQ];
+        long orth = bb[PositionFactory.WR] | bb[PositionFactory.BR] | bb[PositionFactory.WQ] | bb[PositionFactory.BQ];
+        long attackers = attackersTo(bb, to, occ, diag, orth);
+        int res = 1;
+
+        while (true) {
+            stm = !stm;
+            attackers &= occ;
+            long ours = attackers & (stm ? white : black);
+            if (ours == 0) break;
+            res ^= 1;
+
+            long pick;
+            if ((pick = ours & bb[stm ? PositionFactory.WP : PositionFactory.BP]) != 0) {
+                if ((swap = PIECE_VALUES[0] - swap) < res) break;
+                occ ^= pick & -pick;
+                attackers |= MoveGeneratorImpl.bishopAtt(occ, to) & diag;   // x-ray
+            } else if ((pick = ours & bb[stm ? PositionFactory.WN : PositionFactory.BN]) != 0) {
+                if ((swap = PIECE_VALUES[1] - swap) < res) break;
+                occ ^= pick & -pick;
+            } else if ((pick = ours & bb[stm ? PositionFactory.WB : PositionFactory.BB]) != 0) {
+                if ((swap = PIECE_VALUES[2] - swap) < res) break;
+                occ ^= pick & -pick;
+                attackers |= MoveGeneratorImpl.bishopAtt(occ, to) & diag;
+            } else if ((pick = ours & bb[stm ? PositionFactory.WR : PositionFactory.BR]) != 0) {
+                if ((swap = PIECE_VALUES[3] - swap) < res) break;
+                occ ^= pick & -pick;
+                attackers |= MoveGeneratorImpl.rookAtt(occ, to) & orth;
+            } else if ((pick = ours & bb[stm ? PositionFactory.WQ : PositionFactory.BQ]) != 0) {
+                if ((swap = PIECE_VALUES[4] - swap) < res) break;
+                occ ^= pick & -pick;
+                attackers |= (MoveGeneratorImpl.bishopAtt(occ, to) & diag) | (MoveGeneratorImpl.rookAtt(occ, to) & orth);
+            } else {
+                // Only the king is left: it may recapture only if nothing defends the square any more.
+                return (attackers & ~ours & occ) != 0 ? (res ^ 1) != 0 : res != 0;
+            }
+        }
+        return res != 0;
+    }
+
+    /** Both colours' pieces attacking {@code sq} through {@code occ}. */
+    private static long attackersTo(long[] bb, int sq, long occ, long diag, long orth) {
+        long sqBB = 1L << sq;
+        return (((sqBB & ~0x8080808080808080L) >>> 7 | (sqBB & ~0x0101010101010101L) >>> 9) & bb[PositionFactory.WP])
+                | (((sqBB & ~0x0101010101010101L) << 7 | (sqBB & ~0x8080808080808080L) << 9) & bb[PositionFactory.BP])
+                | (PreCompMoveGenTables.KNIGHT_ATK[sq] & (bb[PositionFactory.WN] | bb[PositionFactory.BN]))
+                | (PreCompMoveGenTables.KING_ATK[sq] & (bb[PositionFactory.WK] | bb[PositionFactory.BK]))
+                | (MoveGeneratorImpl.bishopAtt(occ, sq) & diag)
+                | (MoveGeneratorImpl.rookAtt(occ, sq) & orth);
+    }
+
+    /** Value of the piece {@code move} captures, a pawn for en passant, 0 for a quiet move. */
+    private int victimValue(long[] bb, int move) {
+        if (((move >>> 14) & 0x3) == 2) return PIECE_VALUES[0];
+        int piece = PositionFactory.pieceAt(bb, move & 0x3F);
+        return piece < 0 ? 0 : PIECE_VALUES[piece % 6];
+    }
+
     private int getMoverPieceType(int move) {
         return ((move >>> 16) & 0xF) % 6;
     }
@@ -167,10 +266,10 @@ public final class MoveOrdererImpl implements MoveOrderer {
      * @param to             The target square.
      * @param stm            The side to find an attacker for.
      * @param occ            The current board occupancy.
-     * @param outAttackerBit A 1-element array to store the bitboard of the found attacker.
      * @return The piece type (0-5) of the least valuable attacker, or -1 if no attacker is found.
+     *         The attacker's bit is left in {@code lvaBit}.
      */
-    private int getLeastValuableAttacker(long[] bb, int to, boolean stm, long occ, long[] outAttackerBit) {
+    private int getLeastValuableAttacker(long[] bb, int to, boolean stm, long occ) {
         long toBB = 1L << to;
         long attackers;
 
@@ -181,46 +280,46 @@ public final class MoveOrdererImpl implements MoveOrderer {
             attackers = ((toBB & ~0x0101010101010101L) << 7 | (toBB & ~0x8080808080808080L) << 9) & bb[PositionFactory.BP] & occ;
         }
         if (attackers != 0) {
-            outAttackerBit[0] = attackers & -attackers;
+            lvaBit = attackers & -attackers;
             return 0;
         }
 
         // Knights
         attackers = PreCompMoveGenTables.KNIGHT_ATK[to] & bb[stm ? PositionFactory.WN : PositionFactory.BN] & occ;
         if (attackers != 0) {
-            outAttackerBit[0] = attackers & -attackers;
+            lvaBit = attackers & -attackers;
             return 1;
         }
 
         // Bishops
         attackers = MoveGeneratorImpl.bishopAtt(occ, to) & bb[stm ? PositionFactory.WB : PositionFactory.BB] & occ;
         if (attackers != 0) {
-            outAttackerBit[0] = attackers & -attackers;
+            lvaBit = attackers & -attackers;
             return 2;
         }
 
         // Rooks
         attackers = MoveGeneratorImpl.rookAtt(occ, to) & bb[stm ? PositionFactory.WR : PositionFactory.BR] & occ;
         if (attackers != 0) {
-            outAttackerBit[0] = attackers & -attackers;
+            lvaBit = attackers & -attackers;
             return 3;
         }
 
         // Queens
         attackers = MoveGeneratorImpl.queenAtt(occ, to) & bb[stm ? PositionFactory.WQ : PositionFactory.BQ] & occ;
         if (attackers != 0) {
-            outAttackerBit[0] = attackers & -attackers;
+            lvaBit = attackers & -attackers;
             return 4;
         }
 
         // King
         attackers = PreCompMoveGenTables.KING_ATK[to] & bb[stm ? PositionFactory.WK : PositionFactory.BK] & occ;
         if (attackers != 0) {
-            outAttackerBit[0] = attackers & -attackers;
+            lvaBit = attackers & -attackers;
             return 5;
         }
 
-        outAttackerBit[0] = 0L;
+        lvaBit = 0L;
         return -1;
     }
 
@@ -230,14 +329,9 @@ public final class MoveOrdererImpl implements MoveOrderer {
      * @return The piece type (0-5 for P,N,B,R,Q,K), or -1 if the square is empty.
      */
     private int getCapturedPieceType(long[] bb, int toSquare, boolean whiteToMove) {
-        long toBit = 1L << toSquare;
-        int start = whiteToMove ? PositionFactory.BP : PositionFactory.WP;
-        int end = whiteToMove ? PositionFactory.BK : PositionFactory.WK;
-
-        for (int pieceType = start; pieceType <= end; pieceType++) {
-            if ((bb[pieceType] & toBit) != 0) {
-                return pieceType % 6; // Return 0-5
-            }
+        int piece = PositionFactory.pieceAt(bb, toSquare);
+        if (piece >= 0 && (piece < PositionFactory.BP) != whiteToMove) {
+            return piece % 6; // Return 0-5
         }
         // Check for en-passant capture
         if (toSquare == (int)PositionFactory.epSquare(bb[META])) {
@@ -0,0 +1,300 @@
+package core.impl;
+
+import core.contracts.MoveGenerator;
+import core.contracts.MoveOrderer;
+import core.contracts.MovePicker;
+import core.contracts.PositionFactory;
+import core.records.AttackInfo;
+
+import static core.constants.CoreConstants.CONT_NONE;
+import static core.constants.CoreConstants.HISTORY_MAX;
+import static core.constants.CoreConstants.PIECE_TO;
+
+/**
+ * Staged, allocation-free move picker.
+ *
+ * The TT move and the killers arrive in their 16-bit storage form; they are
+ * expanded against the board, validated with
+ * {@link MoveGenerator#isPseudoLegal} and searched before anything is
+ * generated. Losing captures found during the good-capture stage are
+ * compacted to the front of the move buffer and replayed after the quiets.
+ * The counter move to the previous move is not a stage of its own: it is
+ * expanded when the quiets are generated and sorted first among them.
+ * Only legal moves are handed out: each candidate is checked against the
+ * node's {@link AttackInfo}, which the search has already computed, so the
+ * picker never recomputes pins or attacked squares itself.
+ */
+public final class MovePickerImpl implements MovePicker {
+
+    /* ── stages ───────────────────────────────────────────────────── */
+    private static final int MAIN_TT        = 0;
+    private static final int CAPTURE_INIT   = 1;
+    private static final int GOOD_CAPTURE   = 2;
+    private static final int KILLER_1       = 3;
+    private static final int KILLER_2       = 4;
+    private static final int QUIET_INIT     = 5;
+    private static final int QUIET          = 6;
+    private static final int BAD_CAPTURE    = 7;
+    private static final int EVASION_INIT   = 8;
+    private static final int EVASION        = 9;
+    private static final int QS_INIT        = 10;
+    private static final int QS_CAPTURE     = 11;
+    private static final int DONE           = 12;
+
+    /* ── scores ───────────────────────────────────────────────────── */
+    private static final int[] PIECE_VALUES = {100, 320, 330, 500, 900, 10000}; // P,N,B,R,Q,K
+    private static final int SCORE_TT_MOVE   = Integer.MAX_VALUE;
+    private static final int SCORE_CAPTURE   = 1 << 24;   // evasions: captures before quiets
+    private static final int SCORE_UNDER_PROMO = -1;      // MVV-LVA scores are always >= 0
+    private static final int CAPTURE_HISTORY_DIV = 16;    // keeps capture history within one victim step
+    private static final int SCORE_COUNTER   = HISTORY_MAX;   // lifts the counter move above ordinary quiets
+
+    private final MoveGenerator mg;
+    private final MoveOrderer orderer;
+    private final int[][] history;
+    private final int[] captureHistory;
+    private final int[] contHistory;
+    private final short[] counterMoves;
+
+    private final int[] moves = new int[256];
+    private final int[] scores = new int[256];
+
+    /* ── per-node state ──────────────────────────────────────────── */
+    private long[] bb;
+    private int stage;
+    private int ttMove;
+    private int killer1, killer2;                 // compact until their stage is reached
+    private int counter;                          // compact until the quiets are generated
+    private int seeThreshold;
+    private int cur, end, badEnd;
+    private AttackInfo ai;
+    private int cont1, cont2;
+
+    /**
+     * @param history        Butterfly history, [from][to].
+     * @param captureHistory Capture history, [piece][to][captured type] flattened.
+     * @param contHistory    Continuation history, [previous piece-to][piece-to] flattened,
+     *                       with the extra {@link core.constants.CoreConstants#CONT_NONE} row.
+     * @param counterMoves   Compact counter move per previous piece-to, plus a last slot that
+     *                       stays 0 for "no previous move".
+     */
+    public MovePickerImpl(MoveGenerator mg, MoveOrderer orderer, int[][] history,
+                          int[] captureHistory, int[] contHistory, short[] counterMoves) {
+        this.mg = mg;
+        this.orderer = orderer;
+        this.history = history;
+        this.captureHistory = captureHistory;
+        this.contHistory = contHistory;
+        this.counterMoves = counterMoves;
+    }
+
+    @Override
+    public void init(long[] bb, int ttMove, short[] killers, AttackInfo ai, int cont1, int cont2) {
+        reset(bb, mg.expand(bb, ttMove), ai);
+        this.cont1 = cont1;
+        this.cont2 = cont2;
+        this.counter = counterMoves[cont1 / PIECE_TO];
+        this.killer1 = killers[0];
+        this.killer2 = killers[1];
+        this.seeThreshold = 0;
+        this.stage = ai.inCheck() ? EVASION_INIT : (this.ttMove != 0 ? MAIN_TT : CAPTURE_INIT);
+    }
+
+    @Override
+    public void initQuiescence(long[] bb, AttackInfo ai) {
+        reset(bb, 0, ai);
+        this.seeThreshold = 0;
+        this.stage = ai.inCheck() ? EVASION_INIT : QS_INIT;
+    }
+
+    @Override
+    public void initProbCut(long[] bb, int threshold, AttackInfo ai) {
+        reset(bb, 0, ai);
+        this.seeThreshold = threshold;
+        this.stage = QS_INIT;
+    }
+
+    private void reset(long[] bb, int ttMove, AttackInfo ai) {
+        this.bb = bb;
+        this.ai = ai;
+        this.ttMove = ttMove;
+        this.killer1 = 0;
+        this.killer2 = 0;
+        this.counter = 0;
+        this.badEnd = 0;
+        this.cont1 = CONT_NONE;
+        this.cont2 = CONT_NONE;
+    }
+
+    @Override
+    public int next() {
+        int mv;
+        while ((mv = nextPseudoLegal()) != NONE) {
+            if (mg.isLegal(bb, mv, ai)) return mv;
+        }
+        return NONE;
+    }
+
+    private int nextPseudoLegal() {
+        while (true) {
+            switch (stage) {
+                case MAIN_TT -> {
+                    stage = CAPTURE_INIT;
+                    if (mg.isPseudoLegal(bb, ttMove)) return ttMove;
+                }
+                case CAPTURE_INIT -> {
+                    generateCaptures();
+                    cur = 0;
+                    badEnd = 0;
+                    stage = GOOD_CAPTURE;
+                }
+                case GOOD_CAPTURE -> {
+                    while (cur < end) {
+                        int mv = pickBest(moves, scores, cur++, end);
+                        if (mv == ttMove) continue;
+                        if (scores[cur - 1] != SCORE_UNDER_PROMO && orderer.seeGe(bb, mv, seeThreshold, ai)) {
+                            return mv;
+                        }
+                        moves[badEnd++] = mv;   // badEnd < cur, so nothing unseen is overwritten
+                    }
+                    stage = KILLER_1;
+                }
+                case KILLER_1 -> {
+                    stage = KILLER_2;
+                    killer1 = mg.expand(bb, killer1);
+                    if (isPlayableKiller(killer1)) return killer1;
+                }
+                case KILLER_2 -> {
+                    stage = QUIET_INIT;
+                    killer2 = mg.expand(bb, killer2);
+                    if (killer2 != killer1 && isPlayableKiller(killer2)) return killer2;
+                }
+                case QUIET_INIT -> {
+                    // Quiets go after the bad captures, which all sit below badEnd.
+                    cur = badEnd;
+                    end = mg.generateQuiets(bb, moves, badEnd);
+                    counter = mg.expand(bb, counter);
+                    for (int i = cur; i < end; i++) scores[i] = quietScore(moves[i]);
+                    stage = QUIET;
+                }
+                case QUIET -> {
+                    while (cur < end) {
+                        int mv = pickBest(moves, scores, cur++, end);
+                        if (mv != ttMove && mv != killer1 && mv != killer2) return mv;
+                    }
+                    cur = 0;
+                    stage = BAD_CAPTURE;
+                }
+                case BAD_CAPTURE -> {
+                    if (cur < badEnd) return moves[cur++];
+                    stage = DONE;
+                }
+                case EVASION_INIT -> {
+                    end = mg.generateEvasions(bb, moves, 0);
+                    scoreEvasions();
+                    cur = 0;
+                    stage = EVASION;
+                }
+                case EVASION -> {
+                    if (cur < end) return pickBest(moves, scores, cur++, end);
+                    stage = DONE;
+                }
+                case QS_INIT -> {
+                    generateCaptures();
+                    cur = 0;
+                    stage = QS_CAPTURE;
+                }
+                case QS_CAPTURE -> {
+                    while (cur < end) {
+                        int mv = pickBest(moves, scores, cur++, end);
+                        if (orderer.seeGe(bb, mv, seeThreshold, ai)) return mv;
+                    }
+                    stage = DONE;
+                }
+                default -> {
+                    return NONE;
+                }
+            }
+        }
+    }
+
+    /* ── generation & scoring ────────────────────────────────────── */
+
+    private void generateCaptures() {
+        end = mg.generateCaptures(bb, moves, 0);
+        for (int i = 0; i < end; i++) scores[i] = captureScore(moves[i]);
+    }
+
+    private void scoreEvasions() {
+        for (int i = 0; i < end; i++) {
+            int mv = moves[i];
+            if (mv == ttMove) scores[i] = SCORE_TT_MOVE;
+            else if (isTactical(mv)) scores[i] = SCORE_CAPTURE + Math.max(0, captureScore(mv));
+            else scores[i] = quietScore(mv);
+        }
+    }
+
+    /**
+     * MVV-LVA refined by capture history, queen promotions on top; under-promotions are always
+     * replayed as bad captures.
+     */
+    private int captureScore(int mv) {
+        int piece = (mv >>> 16) & 0xF;
+        int score = 0;
+        if (((mv >>> 14) & 0x3) == 1) {
+            if (((mv >>> 12) & 0x3) != 3) return SCORE_UNDER_PROMO;
+            score = (PIECE_VALUES[4] - PIECE_VALUES[0]) * 16;
+        }
+        int victim = victimType(mv);
+        if (victim >= 0) {
+            score += PIECE_VALUES[victim] * 16
+                    + captureHistory[(piece * 64 + (mv & 0x3F)) * 6 + victim] / CAPTURE_HISTORY_DIV;
+        }
+        return Math.max(0, score + 8 - piece % 6);
+    }
+
+    private int quietScore(int mv) {
+        int pieceTo = ((mv >>> 16) & 0xF) * 64 + (mv & 0x3F);
+        return (mv == counter ? SCORE_COUNTER : 0)
+                + history[(mv >>> 6) & 0x3F][mv & 0x3F]
+                + contHistory[cont1 + pieceTo]
+                + contHistory[cont2 + pieceTo];
+    }
+
+    /** Selection sort step: swaps the best remaining move into {@code from} and returns it. */
+    private static int pickBest(int[] list, int[] scores, int from, int end) {
+        int best = from;
+        for (int i = from + 1; i < end; i++) {
+            if (scores[i] > scores[best]) best = i;
+        }
+        int mv = list[best];
+        int sc = scores[best];
+        list[best] = list[from];
+        scores[best] = scores[from];
+        list[from] = mv;
+        scores[from] = sc;
+        return mv;
+    }
+
+    /* ── helpers ─────────────────────────────────────────────────── */
+
+    /** A killer is searched early only if it is a quiet move here; as a capture it was already picked. */
+    private boolean isPlayableKiller(int mv) {
+        return mv != 0 && mv != ttMove && !isTactical(mv) && mg.isPseudoLegal(bb, mv);
+    }
+
+    /** True for every move {@link MoveGenerator#generateCaptures} would emit. */
+    private boolean isTactical(int mv) {
+        int flags = (mv >>> 14) & 0x3;
+        if (flags == 2) return true;                                     // en passant
+        if (victimType(mv) >= 0) return true;
+        return flags == 1 && ((mv >>> 12) & 0x3) == 3;                   // queen push-promotion
+    }
+
+    /** @return the captured piece type (0-5), or -1 when the target square is empty. */
+    private int victimType(int mv) {
+        if (((mv >>> 14) & 0x3) == 2) return 0;
+        int piece = PositionFactory.pieceAt(bb, mv & 0x3F);
+        return piece < 0 ? -1 : piece % 6;
+    }
+}
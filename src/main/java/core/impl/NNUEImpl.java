@@ -132,22 +132,21 @@ public final class NNUEImpl implements NNUE {
         // Use current buckets for all incremental diffs
         if (capturedPiece != -1) {
             int capturedSquare = (moveType == 2) ? (to + (moverPiece < 6 ? -8 : 8)) : to;
-            int[] indices = getFeatureIndices(capturedPiece, capturedSquare, wb, bbkt);
-            subtractWeights(nnueState.whiteAcc, L1_WEIGHTS[indices[0]]);
-            subtractWeights(nnueState.blackAcc, L1_WEIGHTS[indices[1]]);
+            subtractWeights(nnueState.whiteAcc, L1_WEIGHTS[whiteFeature(capturedPiece, capturedSquare, wb)]);
+            subtractWeights(nnueState.blackAcc, L1_WEIGHTS[blackFeature(capturedPiece, capturedSquare, bbkt)]);
         }
 
         if (moveType == 1) { // Promotion
             int promotedToPiece = (moverPiece < 6 ? WN : BN) + ((move >>> 12) & 0x3);
-            int[] subPawnFrom = getFeatureIndices(moverPiece, from, wb, bbkt);
-            int[] addPromoTo  = getFeatureIndices(promotedToPiece, to, wb, bbkt);
-            addSubtractWeights(nnueState.whiteAcc, L1_WEIGHTS[addPromoTo[0]], L1_WEIGHTS[subPawnFrom[0]]);
-            addSubtractWeights(nnueState.blackAcc, L1_WEIGHTS[addPromoTo[1]], L1_WEIGHTS[subPawnFrom[1]]);
+            addSubtractWeights(nnueState.whiteAcc,
+                    L1_WEIGHTS[whiteFeature(promotedToPiece, to, wb)], L1_WEIGHTS[whiteFeature(moverPiece, from, wb)]);
+            addSubtractWeights(nnueState.blackAcc,
+                    L1_WEIGHTS[blackFeature(promotedToPiece, to, bbkt)], L1_WEIGHTS[blackFeature(moverPiece, from, bbkt)]);
         } else { // Normal move
-            int[] indicesFrom = getFeatureIndices(moverPiece, from, wb, bbkt);
-            int[] indicesTo   = getFeatureIndices(moverPiece, to,   wb, bbkt);
-            addSubtractWeights(nnueState.whiteAcc, L1_WEIGHTS[indicesTo[0]], L1_WEIGHTS[indicesFrom[0]]);
-            addSubtractWeights(nnueState.blackAcc, L1_WEIGHTS[indicesTo[1]], L1_WEIGHTS[indicesFrom[1]]);
+            addSubtractWeights(nnueState.whiteAcc,
+                    L1_WEIGHTS[whiteFeature(moverPiece, to, wb)], L1_WEIGHTS[whiteFeature(moverPiece, from, wb)]);
+            addSubtractWeights(nnueState.blackAcc,
+                    L1_WEIGHTS[blackFeature(moverPiece, to, bbkt)], L1_WEIGHTS[blackFeature(moverPiece, from, bbkt)]);
         }
     }
 
@@ -171,22 +170,21 @@ public final class NNUEImpl implements NNUE {
 
         if (moveType == 1) { // Promotion
             int promotedToPiece = (moverPiece < 6 ? WN : BN) + ((move >>> 12) & 0x3);
-            int[] addPawnFrom = getFeatureIndices(moverPiece, from, wb, bbkt);
-            int[] subPromoTo  = getFeatureIndices(promotedToPiece, to,   wb, bbkt);
-            addSubtractWeights(nnueState.whiteAcc, L1_WEIGHTS[addPawnFrom[0]], L1_WEIGHTS[subPromoTo[0]]);
-            addSubtractWeights(nnueState.blackAcc, L1_WEIGHTS[addPawnFrom[1]], L1_WEIGHTS[subPromoTo[1]]);
+            addSubtractWeights(nnueState.whiteAcc,
+                    L1_WEIGHTS[whiteFeature(moverPiece, from, wb)], L1_WEIGHTS[whiteFeature(promotedToPiece, to, wb)]);
+            addSubtractWeights(nnueState.blackAcc,
+                    L1_WEIGHTS[blackFeature(moverPiece, from, bbkt)], L1_WEIGHTS[blackFeature(promotedToPiece, to, bbkt)]);
         } else { // Normal move
-            int[] indicesFrom = getFeatureIndices(moverPiece, from, wb, bbkt);
-            int[] indicesTo   = getFeatureIndices(moverPiece, to,   wb, bbkt);
-            addSubtractWeights(nnueState.whiteAcc, L1_WEIGHTS[indicesFrom[0]], L1_WEIGHTS[indicesTo[0]]);
-            addSubtractWeights(nnueState.blackAcc, L1_WEIGHTS[indicesFrom[1]], L1_WEIGHTS[indicesTo[1]]);
+            addSubtractWeights(nnueState.whiteAcc,
+                    L1_WEIGHTS[whiteFeature(moverPiece, from, wb)], L1_WEIGHTS[whiteFeature(moverPiece, to, wb)]);
+            addSubtractWeights(nnueState.blackAcc,
+                    L1_WEIGHTS[blackFeature(moverPiece, from, bbkt)], L1_WEIGHTS[blackFeature(moverPiece, to, bbkt)]);
         }
 
         if (capturedPiece != -1) {
             int capturedSquare = (moveType == 2) ? (to + (moverPiece < 6 ? -8 : 8)) : to;
-            int[] indices = getFeatureIndices(capturedPiece, capturedSquare, wb, bbkt);
-            addWeights(nnueState.whiteAcc, L1_WEIGHTS[indices[0]]);
-            addWeights(nnueState.blackAcc, L1_WEIGHTS[indices[1]]);
+            addWeights(nnueState.whiteAcc, L1_WEIGHTS[whiteFeature(capturedPiece, capturedSquare, wb)]);
+            addWeights(nnueState.blackAcc, L1_WEIGHTS[blackFeature(capturedPiece, capturedSquare, bbkt)]);
         }
     }
 
@@ -201,9 +199,8 @@ public final class NNUEImpl implements NNUE {
             long board = bb[p];
             while (board != 0) {
                 int sq = Long.numberOfTrailingZeros(board);
-                int[] indices = getFeatureIndices(p, sq, wb, bbkt);
-                addWeights(state.whiteAcc, L1_WEIGHTS[indices[0]]);
-                addWeights(state.blackAcc, L1_WEIGHTS[indices[1]]);
+                addWeights(state.whiteAcc, L1_WEIGHTS[whiteFeature(p, sq, wb)]);
+                addWeights(state.blackAcc, L1_WEIGHTS[blackFeature(p, sq, bbkt)]);
                 board &= board - 1;
             }
         }
@@ -235,16 +232,18 @@ public final class NNUEImpl implements NNUE {
         return (int) output;
     }
 
-    private static int[] getFeatureIndices(int piece, int square, int whiteBucket, int blackBucket) {
+    /** Feature row for {@code piece} on {@code square} from White's perspective. */
+    private static int whiteFeature(int piece, int square, int whiteBucket) {
         int color = piece / 6;
         int pieceType = piece % 6;
+        return whiteBucket * INPUT_SIZE + (color * 384) + (pieceType * 64) + square;
+    }
 
-        int baseWhite = (color * 384) + (pieceType * 64) + square;
-        int baseBlack = ((1 - color) * 384) + (pieceType * 64) + (square ^ 56);
-
-        int whiteFeature = whiteBucket * INPUT_SIZE + baseWhite;
-        int blackFeature = blackBucket * INPUT_SIZE + baseBlack;
-        return new int[] { whiteFeature, blackFeature };
+    /** Feature row for {@code piece} on {@code square} from Black's (mirrored) perspective. */
+    private static int blackFeature(int piece, int square, int blackBucket) {
+        int color = piece / 6;
+        int pieceType = piece % 6;
+        return blackBucket * INPUT_SIZE + ((1 - color) * 384) + (pieceType * 64) + (square ^ 56);
     }
 
     private static int screlu(short v) {
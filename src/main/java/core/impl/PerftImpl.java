@@ -0,0 +1,155 @@
+package core.impl;
+
+import core.contracts.MoveGenerator;
+import core.contracts.Perft;
+import core.contracts.PositionFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import static core.contracts.PositionFactory.HASH;
+
+/**
+ * Parallel, hashed, bulk-counting perft.
+ *
+ * <p>Every root move becomes a fork/join task working on its own copy of the
+ * board. The subtree cache is shared between the tasks without locks: an
+ * entry is two longs, {@code key ^ data} and {@code data}, so a torn write
+ * simply fails verification and is treated as a miss.</p>
+ */
+public final class PerftImpl implements Perft {
+
+    private static final int LIST_CAP = 256;
+    private static final int DEPTH_BITS = 8;
+    private static final long DEPTH_MASK = (1L << DEPTH_BITS) - 1;
+    private static final long DEPTH_SALT = 0x9E3779B97F4A7C15L;
+
+    private final PositionFactory pf;
+    private final MoveGenerator mg;
+    private final ForkJoinPool pool;
+
+    /** {@code [key ^ data, data]} pairs; {@code data = nodes << 8 | depth}. Empty when hashing is off. */
+    private final long[] table;
+    private final int shift;
+
+    /**
+     * @param hashMb  Size of the subtree cache in MiB, rounded down to a power of two; 0 disables it.
+     * @param threads Number of fork/join workers.
+     */
+    public PerftImpl(PositionFactory pf, MoveGenerator mg, int hashMb, int threads) {
+        if (hashMb < 0 || threads < 1) throw new IllegalArgumentException("hashMb=" + hashMb + " threads=" + threads);
+        this.pf = pf;
+        this.mg = mg;
+        this.pool = new ForkJoinPool(threads);
+
+        int entries = hashMb == 0 ? 0 : Integer.highestOneBit((int) Math.min(1L << 29, ((long) hashMb << 20) / 16));
+        this.table = new long[entries * 2];
+        this.shift = entries == 0 ? 64 : 64 - Integer.numberOfTrailingZeros(entries);
+    }
+
+    @Override
+    public long perft(long[] bb, int depth) {
+        return divide(bb, depth, null);
+    }
+
+    @Override
+    public long divide(long[] bb, int depth, DivideHandler handler) {
+        if (depth < 0 || depth > MAX_DEPTH) throw new IllegalArgumentException("depth " + depth);
+        if (depth == 0) return 1;
+
+        int[] roots = new int[LIST_CAP];
+        int n = mg.generateLegal(bb, roots, 0);
+
+        List<ForkJoinTask<Long>> tasks = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) tasks.add(pool.submit(new RootMove(bb, roots[i], depth - 1)));
+
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            long nodes = tasks.get(i).join();
+            if (handler != null) handler.onMove(roots[i], nodes);
+            total += nodes;
+        }
+        return total;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(table, 0L);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    /* ── worker ──────────────────────────────────────────────────── */
+
+    /** Enumerates the subtree below one root move on a private copy of the board. */
+    @SuppressWarnings("serial")     // never serialized
+    private final class RootMove extends RecursiveTask<Long> {
+        private final long[] bb;
+        private final int depth;
+        private final int[][] moves;
+
+        RootMove(long[] root, int move, int depth) {
+            this.bb = root.clone();
+            this.depth = depth;
+            this.moves = new int[Math.max(depth, 1)][LIST_CAP];
+            pf.makeLegalMoveInPlace(bb, move);
+        }
+
+        @Override
+        protected Long compute() {
+            return count(depth);
+        }
+
+        private long count(int depth) {
+            if (depth == 0) return 1;
+
+            int[] list = moves[depth - 1];
+            if (depth == 1) return mg.generateLegal(bb, list, 0);   // bulk count
+
+            long key = bb[HASH];
+            long cached = probe(key, depth);
+            if (cached >= 0) return cached;
+
+            int n = mg.generateLegal(bb, list, 0);
+
+            long nodes = 0;
+            for (int i = 0; i < n; i++) {
+                pf.makeLegalMoveInPlace(bb, list[i]);
+                nodes += count(depth - 1);
+                pf.undoMoveInPlace(bb);
+            }
+            store(key, depth, nodes);
+            return nodes;
+        }
+    }
+
+    /* ── subtree cache ───────────────────────────────────────────── */
+
+    private int slot(long key, int depth) {
+        return (int) ((key ^ depth * DEPTH_SALT) >>> shift) << 1;
+    }
+
+    /** @return the cached count, or -1 on a miss */
+    private long probe(long key, int depth) {
+        if (table.length == 0) return -1;
+        int i = slot(key, depth);
+        long data = table[i + 1];
+        if ((table[i] ^ data) != key || (data & DEPTH_MASK) != depth) return -1;
+        return data >>> DEPTH_BITS;
+    }
+
+    private void store(long key, int depth, long nodes) {
+        if (table.length == 0) return;
+        int i = slot(key, depth);
+        long data = nodes << DEPTH_BITS | depth;
+        table[i] = key ^ data;
+        table[i + 1] = data;
+    }
+}
@@ -251,6 +251,33 @@ public final class PositionFactoryImpl implements PositionFactory {
     int from  = (mv >>>  6) & 0x3F;
     int to    =  mv         & 0x3F;
     int type  = (mv >>> 14) & 0x3;
+
+    if (type == 3 && !gen.castleLegal(bb, from, to))
+      return false;
+
+    long oldHash = bb[HASH];
+    int  sp      = (int) bb[COOKIE_SP];
+    makeLegalMoveInPlace(bb, mv);
+
+    // Legality check (ensure own king is not in check)
+    if (gen.kingAttacked(bb, ((mv >>> 16) & 0xF) < 6)) {
+      // Move is illegal, revert state.
+      bb[HASH] = oldHash;
+      fastUndo(bb);
+      bb[COOKIE_SP] = sp;
+      long prev = bb[COOKIE_BASE + sp];
+      bb[DIFF_INFO] = (int)  prev;
+      bb[DIFF_META] = (int) (prev >>> 32);
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public void makeLegalMoveInPlace(long[] bb, int mv) {
+    int from  = (mv >>>  6) & 0x3F;
+    int to    =  mv         & 0x3F;
+    int type  = (mv >>> 14) & 0x3;
     int promo = (mv >>> 12) & 0x3;
     int mover = (mv >>> 16) & 0xF;
 
@@ -258,11 +285,7 @@ public final class PositionFactoryImpl implements PositionFactory {
     long    fromBit = 1L << from;
     long    toBit   = 1L << to;
 
-    if (type == 3 && !gen.castleLegal(bb, from, to))
-      return false;
-
     long h        = bb[HASH];
-    long oldHash  = h;
     int  metaOld  = (int) bb[META];
     int  oldCR    = (metaOld & CR_BITS) >>> CR_SHIFT;
     int  oldEP    = (metaOld & EP_BITS) >>> EP_SHIFT;
@@ -277,18 +300,10 @@ public final class PositionFactoryImpl implements PositionFactory {
     // --- Execute Move and Update Piece Hashes ---
     int captured = 15;
     if (type <= 1) {
-      // Determine if a piece is captured (standard capture)
-      long enemy = white
-              ? (bb[BP]|bb[BN]|bb[BB]|bb[BR]|bb[BQ]|bb[BK])
-              : (bb[WP]|bb[WN]|bb[WB]|bb[WR]|bb[WQ]|bb[WK]);
-      if ((enemy & toBit) != 0) {
-        // Identify captured piece type
-        captured = (bb[white?BP:WP] & toBit)!=0 ? (white?BP:WP) :
-                (bb[white?BN:WN] & toBit)!=0 ? (white?BN:WN) :
-                        (bb[white?BB:WB] & toBit)!=0 ? (white?BB:WB) :
-                                (bb[white?BR:WR] & toBit)!=0 ? (white?BR:WR) :
-                                        (bb[white?BQ:WQ] & toBit)!=0 ? (white?BQ:WQ) :
-                                                (white?BK:WK);
+      // Standard capture: the mailbox names the victim (never a friendly piece)
+      int victim = PositionFactory.pieceAt(bb, to);
+      if (victim >= 0) {
+        captured = victim;
         bb[captured] &= ~toBit;
         h ^= PIECE_SQUARE[captured][to];
       }
@@ -298,28 +313,32 @@ public final class PositionFactoryImpl implements PositionFactory {
       captured    = white ? BP : WP;
       bb[captured] &= ~(1L << capSq);
       h ^= PIECE_SQUARE[captured][capSq];
+      mbClear(bb, capSq);
     }
 
     // Move the piece (remove from origin)
     bb[mover] ^= fromBit;
     h ^= PIECE_SQUARE[mover][from];
+    mbClear(bb, from);
 
     // Place the piece (or promotion piece) at destination
     if (type == 1) {
       int promIdx = (white ? WN : BN) + promo;
       bb[promIdx] |= toBit;
       h ^= PIECE_SQUARE[promIdx][to];
+      mbPut(bb, to, promIdx);
     } else {
       bb[mover]   |= toBit;
       h ^= PIECE_SQUARE[mover][to];
+      mbPut(bb, to, mover);
     }
 
     // Handle castling rook moves
     if (type == 3) switch (to) {
-      case  6 -> { bb[WR] ^= (1L<<7)|(1L<<5); h ^= PIECE_SQUARE[WR][7] ^ PIECE_SQUARE[WR][5]; }
-      case  2 -> { bb[WR] ^= (1L<<0)|(1L<<3); h ^= PIECE_SQUARE[WR][0] ^ PIECE_SQUARE[WR][3]; }
-      case 62 -> { bb[BR] ^= (1L<<63)|(1L<<61);h ^= PIECE_SQUARE[BR][63] ^ PIECE_SQUARE[BR][61];}
-      case 58 -> { bb[BR] ^= (1L<<56)|(1L<<59);h ^= PIECE_SQUARE[BR][56] ^ PIECE_SQUARE[BR][59];}
+      case  6 -> { bb[WR] ^= (1L<<7)|(1L<<5); h ^= PIECE_SQUARE[WR][7] ^ PIECE_SQUARE[WR][5]; mbMove(bb, 7, 5, WR); }
+      case  2 -> { bb[WR] ^= (1L<<0)|(1L<<3); h ^= PIECE_SQUARE[WR][0] ^ PIECE_SQUARE[WR][3]; mbMove(bb, 0, 3, WR); }
+      case 62 -> { bb[BR] ^= (1L<<63)|(1L<<61);h ^= PIECE_SQUARE[BR][63] ^ PIECE_SQUARE[BR][61]; mbMove(bb, 63, 61, BR); }
+      case 58 -> { bb[BR] ^= (1L<<56)|(1L<<59);h ^= PIECE_SQUARE[BR][56] ^ PIECE_SQUARE[BR][59]; mbMove(bb, 56, 59, BR); }
     }
 
     // --- Update State (META) and associated Hashes ---
@@ -381,19 +400,6 @@ public final class PositionFactoryImpl implements PositionFactory {
     bb[DIFF_META] = (int) (bb[META] ^ meta);
     bb[META]      = meta;
     bb[HASH]      = h;
-
-    // Legality check (ensure own king is not in check)
-    if (gen.kingAttacked(bb, white)) {
-      // Move is illegal, revert state.
-      bb[HASH] = oldHash;
-      fastUndo(bb);
-      bb[COOKIE_SP] = sp;
-      long prev = bb[COOKIE_BASE + sp];
-      bb[DIFF_INFO] = (int)  prev;
-      bb[DIFF_META] = (int) (prev >>> 32);
-      return false;
-    }
-    return true;
   }
 
   @Override
@@ -437,13 +443,14 @@ public final class PositionFactoryImpl implements PositionFactory {
       bb[mover] ^= fromBit | toBit;
       h ^= PIECE_SQUARE[mover][to] ^ PIECE_SQUARE[mover][from];
     }
+    mbMove(bb, to, from, mover);
 
     if (type == 3) { // Castle undo
       switch (to) {
-        case  6 -> { bb[WR] ^= (1L<<7)|(1L<<5); h ^= PIECE_SQUARE[WR][7] ^ PIECE_SQUARE[WR][5]; }
-        case  2 -> { bb[WR] ^= (1L<<0)|(1L<<3); h ^= PIECE_SQUARE[WR][0] ^ PIECE_SQUARE[WR][3]; }
-        case 62 -> { bb[BR] ^= (1L<<63)|(1L<<61);h ^= PIECE_SQUARE[BR][63] ^ PIECE_SQUARE[BR][61];}
-        case 58 -> { bb[BR] ^= (1L<<56)|(1L<<59);h ^= PIECE_SQUARE[BR][56] ^ PIECE_SQUARE[BR][59];}
+        case  6 -> { bb[WR] ^= (1L<<7)|(1L<<5); h ^= PIECE_SQUARE[WR][7] ^ PIECE_SQUARE[WR][5]; mbMove(bb, 5, 7, WR); }
+        case  2 -> { bb[WR] ^= (1L<<0)|(1L<<3); h ^= PIECE_SQUARE[WR][0] ^ PIECE_SQUARE[WR][3]; mbMove(bb, 3, 0, WR); }
+        case 62 -> { bb[BR] ^= (1L<<63)|(1L<<61);h ^= PIECE_SQUARE[BR][63] ^ PIECE_SQUARE[BR][61]; mbMove(bb, 61, 63, BR); }
+        case 58 -> { bb[BR] ^= (1L<<56)|(1L<<59);h ^= PIECE_SQUARE[BR][56] ^ PIECE_SQUARE[BR][59]; mbMove(bb, 59, 56, BR); }
       }
     }
 
@@ -451,6 +458,7 @@ public final class PositionFactoryImpl implements PositionFactory {
       int capSq = (type == 2) ? ((mover < 6) ? to - 8 : to + 8) : to;
       bb[capIdx] |= 1L << capSq;
       h ^= PIECE_SQUARE[capIdx][capSq];
+      mbPut(bb, capSq, capIdx);
     }
 
     // Restore cookies
@@ -500,17 +508,19 @@ public final class PositionFactoryImpl implements PositionFactory {
     } else {
       bb[mover] ^= fromBit | toBit;
     }
+    mbMove(bb, to, from, mover);
 
     if (type == 3) switch (to) {
-      case  6 -> bb[WR] ^= (1L<<7)  | (1L<<5);
-      case  2 -> bb[WR] ^= (1L<<0)  | (1L<<3);
-      case 62 -> bb[BR] ^= (1L<<63) | (1L<<61);
-      case 58 -> bb[BR] ^= (1L<<56) | (1L<<59);
+      case  6 -> { bb[WR] ^= (1L<<7)  | (1L<<5);  mbMove(bb, 5, 7, WR); }
+      case  2 -> { bb[WR] ^= (1L<<0)  | (1L<<3);  mbMove(bb, 3, 0, WR); }
+      case 62 -> { bb[BR] ^= (1L<<63) | (1L<<61); mbMove(bb, 61, 63, BR); }
+      case 58 -> { bb[BR] ^= (1L<<56) | (1L<<59); mbMove(bb, 59, 56, BR); }
     }
 
     if (capIdx != 15) {
-      long capMask = (type == 2) ? 1L << ((mover < 6) ? to - 8 : to + 8) : toBit;
-      bb[capIdx] |= capMask;
+      int capSq = (type == 2) ? ((mover < 6) ? to - 8 : to + 8) : to;
+      bb[capIdx] |= 1L << capSq;
+      mbPut(bb, capSq, capIdx);
     }
     // HASH is restored by the caller.
   }
@@ -575,6 +585,7 @@ public final class PositionFactoryImpl implements PositionFactory {
                 default -> throw new IllegalArgumentException("bad fen piece: " + c);
               };
       bb[idx] |= 1L << sq;
+      mbPut(bb, sq, idx);
     }
 
     // 2. Side to move
@@ -643,6 +654,21 @@ public final class PositionFactoryImpl implements PositionFactory {
     return k;
   }
 
+  /* ───────── Mailbox (one byte per square, see PositionFactory.MAILBOX) ───────── */
+  private static void mbPut(long[] bb, int sq, int piece) {
+    int i = MAILBOX + (sq >>> 3), sh = (sq & 7) << 3;
+    bb[i] = (bb[i] & ~(0xFFL << sh)) | ((long) (piece + 1) << sh);
+  }
+
+  private static void mbClear(long[] bb, int sq) {
+    bb[MAILBOX + (sq >>> 3)] &= ~(0xFFL << ((sq & 7) << 3));
+  }
+
+  private static void mbMove(long[] bb, int from, int to, int piece) {
+    mbClear(bb, from);
+    mbPut(bb, to, piece);
+  }
+
   // Packing/Unpacking DIFF_INFO
   private static long packDiff(int from, int to, int cap, int mover, int typ, int pro) {
     return (from) | ((long) to << 6) | ((long) cap << 12) | ((long) mover << 16) | ((long) typ << 20) | ((long) pro << 22);
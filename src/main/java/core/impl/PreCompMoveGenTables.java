@@ -1,5 +1,12 @@
 package core.impl;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Locale;
 
 public final class PreCompMoveGenTables {
@@ -473,9 +480,11 @@ public final class PreCompMoveGenTables {
     562962977269890L
   };
 
-  /** 88507 entries loaded from PrecomputedTables.bin */
-  public static final long[] LOOKUP_TABLE = new long[88507];
+  /** Magic slider attacks, 88507 entries from PrecomputedTables.Magic.bin; empty under PEXT. */
+  public static final long[] LOOKUP_TABLE;
+  private static final int MAGIC_TABLE_SIZE = 88507;
 
+  /** PEXT slider attacks from PrecomputedTables.Pext.bin; empty under magics. */
   public static final long[] SLIDER_PEXT;
 
   public static final int[] B_BASE = new int[64];
@@ -491,29 +500,36 @@ public final class PreCompMoveGenTables {
   public static final long[] KING_ATK = new long[64];
   public static final long[] KNIGHT_ATK = new long[64];
   public static final long[] BETWEEN = new long[64 * 64];
+  public static final long[] LINE = new long[64 * 64];
 
-  /** True iff Long.compress (→ PEXT) is available *and* not disabled by property. */
-  public static final boolean USE_PEXT = true;
+  /**
+   * Slider backend, fixed at class initialisation so that every {@code if (USE_PEXT)} is folded
+   * by the JIT and the attack lookups stay monomorphic. PEXT is only chosen where {@code
+   * Long.compress} becomes a fast BMI2 {@code pext}; {@code -Dhelios.pext=true|false} forces it.
+   */
+  public static final boolean USE_PEXT;
+
+  /** How {@link #USE_PEXT} was decided, for an {@code info string} line. */
+  public static final String BACKEND_REASON;
 
   static {
-    try (var in = PreCompMoveGenTables.class.getResourceAsStream("PrecomputedTables.Magic.bin")) {
-      if (in == null) throw new IllegalStateException("PrecomputedTables.Magic.bin missing");
-      var buf = java.nio.ByteBuffer.wrap(in.readAllBytes()).order(java.nio.ByteOrder.LITTLE_ENDIAN);
-      buf.asLongBuffer().get(LOOKUP_TABLE);
-    } catch (Exception e) {
-      throw new ExceptionInInitializerError(e);
+    String forced = System.getProperty("helios.pext");
+    Boolean cpu = forced == null ? cpuHasFastPext() : null;
+    if (forced != null) {
+      USE_PEXT = Boolean.parseBoolean(forced);
+      BACKEND_REASON = "forced by helios.pext";
+    } else if (cpu != null) {
+      USE_PEXT = cpu;
+      BACKEND_REASON = cpu ? "cpu has bmi2" : "no fast pext on this cpu";
+    } else {
+      USE_PEXT = pextIndexIsFaster();
+      BACKEND_REASON = "measured";
     }
-    try (var in = PreCompMoveGenTables.class.getResourceAsStream("PrecomputedTables.Pext.bin")) {
-      if (in == null) throw new IllegalStateException("PrecomputedTables.Pext.bin missing");
-
-      byte[] raw = in.readAllBytes(); // full file
-      int n = raw.length >>> 3; // 8-bytes → longs
 
-      SLIDER_PEXT = new long[n]; // exact fit
-      java.nio.ByteBuffer.wrap(raw)
-          .order(java.nio.ByteOrder.LITTLE_ENDIAN)
-          .asLongBuffer()
-          .get(SLIDER_PEXT);
+    // Only the active backend's table is read; the other one is never touched.
+    try {
+      LOOKUP_TABLE = USE_PEXT ? new long[0] : loadTable("PrecomputedTables.Magic.bin", MAGIC_TABLE_SIZE);
+      SLIDER_PEXT = USE_PEXT ? loadTable("PrecomputedTables.Pext.bin", pextTableSize()) : new long[0];
     } catch (Exception e) {
       throw new ExceptionInInitializerError(e);
     }
@@ -543,7 +559,109 @@ public final class PreCompMoveGenTables {
       KNIGHT_ATK[sq] = knightMask(r, f);
     }
     for (int a = 0; a < 64; ++a)
-      for (int b = 0; b < 64; ++b) BETWEEN[a * 64 + b] = between(a, b); // strict – no end-points
+      for (int b = 0; b < 64; ++b) {
+        BETWEEN[a * 64 + b] = between(a, b); // strict – no end-points
+        LINE[a * 64 + b] = line(a, b);       // edge to edge, end-points included
+      }
+  }
+
+  /**
+   * Reads a little-endian table of {@code size} longs. The bytes go straight from the resource
+   * stream into one buffer of the exact size and are then bulk-copied into the array, with no
+   * growing read buffer or per-long decoding in between.
+   */
+  private static long[] loadTable(String resource, int size) throws IOException {
+    try (InputStream in = PreCompMoveGenTables.class.getResourceAsStream(resource)) {
+      if (in == null) throw new IllegalStateException(resource + " missing");
+      byte[] raw = new byte[size * Long.BYTES];
+      if (in.readNBytes(raw, 0, raw.length) != raw.length)
+        throw new IllegalStateException(resource + " is truncated");
+      long[] table = new long[size];
+      ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(table);
+      return table;
+    }
+  }
+
+  /**
+   * Reads the first processor entry of /proc/cpuinfo. BMI2 is required, and AMD before Zen 3
+   * (family 25) implements pext in microcode, far slower than a magic multiply.
+   *
+   * @return whether pext is fast, or null when the cpu cannot be identified this way
+   */
+  private static Boolean cpuHasFastPext() {
+    String arch = System.getProperty("os.arch", "");
+    if (!arch.equals("amd64") && !arch.equals("x86_64")) return null;
+    Path cpuinfo = Path.of("/proc/cpuinfo");
+    if (!Files.isReadable(cpuinfo)) return null;
+
+    String vendor = "", flags = null;
+    int family = -1;
+    try (BufferedReader in = Files.newBufferedReader(cpuinfo)) {
+      String line;
+      while (flags == null && (line = in.readLine()) != null) {
+        int colon = line.indexOf(':');
+        if (colon < 0) continue;
+        String key = line.substring(0, colon).trim(), value = line.substring(colon + 1).trim();
+        switch (key) {
+          case "vendor_id" -> vendor = value;
+          case "cpu family" -> family = Integer.parseInt(value);
+          case "flags" -> flags = " " + value + " ";
+          default -> {}
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      return null;
+    }
+    if (flags == null) return null;
+    boolean microcoded = vendor.equals("AuthenticAMD") && family < 25;
+    return flags.contains(" bmi2 ") && !microcoded;
+  }
+
+  /**
+   * Fallback where /proc/cpuinfo says nothing: times the two index computations on random
+   * occupancies (the table loads that follow them cost the same). Runs long enough for the loop
+   * to be compiled, so that an intrinsified {@code Long.compress} is what gets measured.
+   */
+  private static boolean pextIndexIsFaster() {
+    long[] occ = new long[1024];
+    long x = 0x9E3779B97F4A7C15L;
+    for (int i = 0; i < occ.length; i++) {
+      x ^= x << 13;
+      x ^= x >>> 7;
+      x ^= x << 17;
+      occ[i] = x & (x >>> 11);
+    }
+    long pext = Long.MAX_VALUE, magic = Long.MAX_VALUE, sink = 0;
+    for (int round = 0; round < 6; round++) {
+      long t0 = System.nanoTime();
+      for (int sq = 0; sq < 64; sq++) {
+        long mask = ROOKMASK_PEXT[sq];
+        for (long o : occ) sink += Long.compress(o, mask);
+      }
+      long t1 = System.nanoTime();
+      for (int sq = 0; sq < 64; sq++) {
+        long mask = R_MAGICS[sq * 3 + 1], hash = R_MAGICS[sq * 3 + 2];
+        for (long o : occ) sink += ((o & mask) * hash) >>> 52;
+      }
+      long t2 = System.nanoTime();
+      pext = Math.min(pext, t1 - t0);
+      magic = Math.min(magic, t2 - t1);
+    }
+    benchSink = sink;
+    return pext <= magic;
+  }
+
+  @SuppressWarnings("unused")
+  private static volatile long benchSink; // keeps the timed loops from being optimised away
+
+  /** Entries in the PEXT table: each square's block holds one entry per subset of its mask. */
+  private static int pextTableSize() {
+    int size = 0;
+    for (int sq = 0; sq < 64; sq++) {
+      size = Math.max(size, ROOKOFFSET_PEXT[sq] + (1 << Long.bitCount(ROOKMASK_PEXT[sq])));
+      size = Math.max(size, BISHOPOFFSET_PEXT[sq] + (1 << Long.bitCount(BISHOPMASK_PEXT[sq])));
+    }
+    return size;
   }
 
   private static long addToMask(long m, int r, int f) {
@@ -558,6 +676,23 @@ public final class PreCompMoveGenTables {
     return m;
   }
 
+  /** whole edge-to-edge line through two aligned squares (0 if not on same ray) */
+  private static long line(int a, int b) {
+    if (a == b) return 0L;
+
+    int df = (b & 7) - (a & 7);
+    int dr = (b >>> 3) - (a >>> 3);
+    if (df != 0 && dr != 0 && Math.abs(df) != Math.abs(dr)) return 0L;
+
+    int sf = Integer.signum(df), sr = Integer.signum(dr);
+    long bb = 1L << a;
+    for (int dir = -1; dir <= 1; dir += 2) {
+      int r = (a >>> 3) + dir * sr, f = (a & 7) + dir * sf;
+      for (; r >= 0 && r < 8 && f >= 0 && f < 8; r += dir * sr, f += dir * sf) bb |= 1L << ((r << 3) | f);
+    }
+    return bb;
+  }
+
   /** squares strictly between two aligned squares (0 if not on same ray) */
   private static long between(int from, int to) {
 
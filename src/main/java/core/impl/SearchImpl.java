@@ -3,6 +3,7 @@ package core.impl;
 import core.contracts.*;
 import core.records.SearchResult;
 import core.records.SearchSpec;
+import core.records.SearchStats;
 
 import java.util.concurrent.CompletableFuture;
 
@@ -19,7 +20,8 @@ public final class SearchImpl implements Search {
 
     /* configurable services */
     private TranspositionTable  transpositionTable;
-    private WorkerPool          workerPool;
+    /* volatile: stop() and ponderHit() read it without the monitor */
+    private volatile WorkerPool workerPool;
     private TimeManager         timeManager;
 
     /* thread option remembered for future pool swaps */
@@ -58,27 +60,57 @@ public final class SearchImpl implements Search {
 
     @Override
     public SearchResult search(long[] bb, SearchSpec spec, InfoHandler ih) {
+        return searchAsync(bb, spec, ih).join(); // block caller
+    }
+
+    /**
+     * Starts the search on the caller's thread: starting only wakes the main
+     * worker, so no executor thread sits between {@code go} and the first node.
+     * The future is completed by the main worker itself, which also runs any
+     * dependent callbacks, so nothing sits between the last node and
+     * {@code bestmove} either.
+     */
+    @Override
+    public synchronized CompletableFuture<SearchResult> searchAsync(long[] bb,
+                                                                    SearchSpec spec,
+                                                                    InfoHandler ih) {
         if (workerPool == null)
             throw new IllegalStateException("WorkerPool not set");
-        return workerPool
-                .startSearch(bb, spec,
-                        positionFactory, moveGenerator,
-                        transpositionTable,
-                        timeManager, ih)
-                .join(); // block caller
+        return workerPool.startSearch(bb, spec,
+                positionFactory, moveGenerator,
+                transpositionTable,
+                timeManager, ih);
     }
 
+    /* ── UCI helpers ───────────────────────────────────────────── */
+
+    /*
+     * stop and ponderHit deliberately skip the monitor: searchAsync holds it
+     * while it waits for the previous search to finish, and only these two can
+     * end an infinite or ponder search.
+     */
+
     @Override
-    public CompletableFuture<SearchResult> searchAsync(long[] bb,
-                                                       SearchSpec spec,
-                                                       InfoHandler ih) {
-        return CompletableFuture.supplyAsync(() -> search(bb, spec, ih));
+    public void stop() {
+        WorkerPool pool = workerPool;
+        if (pool != null) pool.stopSearch();
     }
 
-    /* ── UCI helpers ───────────────────────────────────────────── */
+    @Override
+    public void ponderHit() {
+        WorkerPool pool = workerPool;
+        if (pool != null) pool.ponderHit();
+    }
 
-    @Override public void stop()       { if (workerPool != null) workerPool.stopSearch(); }
-    @Override public void ponderHit()  { /* not implemented */  }
+    @Override
+    public synchronized void clearHistory() {
+        if (workerPool != null) workerPool.clearHistory();
+    }
+
+    @Override
+    public SearchStats getStats() {
+        return workerPool != null ? workerPool.collectStats() : new SearchStats();
+    }
 
     @Override
     public void close() {
@@ -3,10 +3,12 @@ package core.impl;
 
 import core.constants.CoreConstants;
 import core.contracts.*;
+import core.records.AttackInfo;
 import core.records.NNUEState;
 import core.records.SearchInfo;
 import core.records.SearchResult;
 import core.records.SearchSpec;
+import core.records.SearchStats;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -16,6 +18,8 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import static core.constants.CoreConstants.*;
+import static core.constants.SearchParams.*;
+import static core.records.SearchStats.ENABLED;
 import static core.contracts.PositionFactory.*;
 
 public final class SearchWorkerImpl implements Runnable, SearchWorker {
@@ -30,14 +34,16 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
     private volatile boolean quit = false;
 
     /* ── per-search state ────────── */
-    private long[] rootBoard;
+    private final long[] rootBoard = new long[PositionFactory.BB_LEN];
     private SearchSpec spec;
     private PositionFactory pf;
     private MoveGenerator mg;
     private TimeManager tm;
     private InfoHandler ih;
     private TranspositionTable tt;
-    private MoveOrderer moveOrderer;
+    private final MoveOrderer moveOrderer;
+    private final MovePicker[] pickers = new MovePicker[MAX_PLY + 2];
+    private MoveGenerator pickerMg;            // generator the pickers were built with
 
     /* ── NNUE ────────── */
     private final NNUEState nnueState = new NNUEState();
@@ -50,39 +56,34 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
     private long nodes;
     private int bestMove;
     private int ponderMove;
-    private List<Integer> pv = new ArrayList<>();
-    private List<Long> gameHistory;
+    private final int[] rootPv = new int[MAX_PLY];
+    private int rootPvLen;
+    private long[] gameHistory = new long[0];
     private final long[] searchPathHistory = new long[MAX_PLY + 2];
 
     /* ── Heuristics for Time Management ── */
     private int stability;
     private int lastBestMove;
-    private final List<Integer> searchScores = new ArrayList<>();
-    private final int[][] killers = new int[MAX_PLY + 2][2];
+    private final int[] searchScores = new int[MAX_PLY + 1];  // score per completed iteration
+    private int searchScoreCount;
+    private final short[][] killers = new short[MAX_PLY + 2][2];
 
     /* ── History Heuristic ────────── */
     private final int[][] history = new int[64][64];  // from-to scores for quiet moves
-    private static final int HISTORY_MAX = 16384;
+    private final int[] captureHistory = new int[PIECE_TO * 6];             // [piece][to][captured type]
+    private final int[] contHistory = new int[(PIECE_TO + 1) * PIECE_TO];   // [prev piece-to][piece-to], + CONT_NONE row
+    private final short[] counterMoves = new short[PIECE_TO + 1];         // compact reply per previous piece-to
+    private final int[] pieceTo = new int[MAX_PLY + 2];  // piece*64+to of the move made at each ply, PIECE_TO after a null move
+
+    /* ── statistics (only with -Dhelios.stats=true) ── */
+    private final SearchStats stats = new SearchStats();
 
     /* ── scratch buffers ─────────────── */
     private final SearchFrame[] frames = new SearchFrame[MAX_PLY + 2];
+    private final AttackInfo[] attacks = new AttackInfo[MAX_PLY + 2];  // checkers/pins/threats per ply
     private final int[][] moves = new int[MAX_PLY + 2][256];
+    private final int[][] capturesTried = new int[MAX_PLY + 2][64];
     private static final int LIST_CAP = 256;
-    private static final int[][] LMR_TABLE = new int[MAX_PLY][MAX_PLY]; // Using MAX_PLY for size safety
-
-
-    static {
-        for (int d = 1; d < MAX_PLY; d++) {
-            for (int m = 1; m < MAX_PLY; m++) {
-                double reduction = (
-                        75 / 100.0 +
-                                Math.log(d) * Math.log(m) / (250 / 100.0)
-                );
-                // Clamp the reduction to a reasonable maximum, e.g., depth - 2
-                LMR_TABLE[d][m] = Math.max(0, (int) Math.round(reduction));
-            }
-        }
-    }
 
     private static final class SearchFrame {
         int[] pv = new int[MAX_PLY];
@@ -100,8 +101,10 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
     public SearchWorkerImpl(boolean isMainThread, WorkerPoolImpl pool) {
         this.isMainThread = isMainThread;
         this.pool = pool;
+        this.moveOrderer = new MoveOrdererImpl(history);
         for (int i = 0; i < frames.length; ++i) {
             frames[i] = new SearchFrame();
+            attacks[i] = new AttackInfo();
         }
     }
 
@@ -111,12 +114,29 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
     }
 
     private void idleLoop() {
+        boolean finished = false;   // a start signalled before this thread ran must not be lost
+        Runnable completion = null;
         while (true) {
             mutex.lock();
             try {
-                searching = false;
-                finishedCondition.signal(); // Signal that we are done
+                if (finished) {
+                    searching = false;
+                    finishedCondition.signal(); // Signal that we are done
+                }
+            } finally {
+                mutex.unlock();
+            }
+
+            // Completion callbacks run here, on this thread but with the worker already
+            // idle, so a callback may take locks held by a thread starting the next search.
+            if (completion != null) {
+                completion.run();
+                completion = null;
+            }
 
+            mutex.lock();
+            try {
+                finished = true;
                 while (!searching && !quit) {
                     try {
                         startCondition.await();
@@ -133,19 +153,20 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
             }
 
             if (isMainThread) {
-                mainThreadSearch();
+                completion = mainThreadSearch();
             } else {
                 search();
             }
         }
     }
 
-    private void mainThreadSearch() {
+    private Runnable mainThreadSearch() {
         tt.incrementAge();
         pool.startHelpers();
         search();
+        pool.waitWhilePondering();
         pool.waitForHelpersFinished();
-        pool.finalizeSearch(getSearchResult());
+        return pool.finalizeSearch(getSearchResult());
     }
 
 
@@ -156,17 +177,17 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
         this.lastScore = 0;
         this.mateScore = false;
         this.elapsedMs = 0;
-        this.pv.clear();
+        this.rootPvLen = 0;
 
         this.stability = 0;
         this.lastBestMove = 0;
-        this.searchScores.clear();
+        this.searchScoreCount = 0;
         this.bestMove = 0;
-        for (int[] k : killers) Arrays.fill(k, 0);
+        for (short[] k : killers) Arrays.fill(k, (short) 0);
+        ageHistory();
+        if (ENABLED) stats.clear();
 
         nnue.refreshAccumulator(nnueState, rootBoard);
-        // Change: Pass history to move orderer
-        this.moveOrderer = new MoveOrdererImpl(history);
 
         long searchStartMs = pool.getSearchStartTime();
         int maxDepth = spec.depth() > 0 ? spec.depth() : CoreConstants.MAX_PLY;
@@ -183,6 +204,7 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
 
             while (true) {
                 score = pvs(rootBoard, depth, alpha, beta, 0);
+                if (pool.isStopped()) break;
 
                 if (score <= alpha) {                 // fail‑low  → widen downward
                     window <<= 1;                     // double the window
@@ -197,20 +219,25 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
                 }
             }
 
+            // An interrupted iteration's score and PV are incomplete; keep the last full one.
+            if (pool.isStopped() && completedDepth > 0) break;
+
             // Store the successful score for the next iteration's aspiration window
             aspirationScore = score;
 
             lastScore = score;
             mateScore = Math.abs(score) >= SCORE_MATE_IN_MAX_PLY;
             completedDepth = depth;
+            if (ENABLED) {
+                stats.iterationNodes[depth] = nodes;
+                stats.iterations = depth;
+            }
 
             if (frames[0].len > 0) {
-                pv = new ArrayList<>(frames[0].len);
-                for (int i = 0; i < frames[0].len; i++) {
-                    pv.add(frames[0].pv[i]);
-                }
-                bestMove = pv.get(0);
-                ponderMove = pv.size() > 1 ? pv.get(1) : 0;
+                rootPvLen = frames[0].len;
+                System.arraycopy(frames[0].pv, 0, rootPv, 0, rootPvLen);
+                bestMove = rootPv[0];
+                ponderMove = rootPvLen > 1 ? rootPv[1] : 0;
 
                 if (bestMove == lastBestMove) {
                     stability++;
@@ -219,7 +246,7 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
                 }
                 lastBestMove = bestMove;
             }
-            searchScores.add(lastScore);
+            searchScores[searchScoreCount++] = lastScore;
 
             elapsedMs = System.currentTimeMillis() - searchStartMs;
 
@@ -228,12 +255,13 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
                 long nps = elapsedMs > 0 ? (totalNodes * 1000) / elapsedMs : 0;
                 ih.onInfo(new SearchInfo(
                         depth, completedDepth, 1, score, mateScore, totalNodes,
-                        nps, elapsedMs, pv, tt.hashfull(), 0));
+                        nps, elapsedMs, pvAsList(), tt.hashfull(), 0));
             }
 
             if (isMainThread) {
-                if (mateScore || softTimeUp(searchStartMs, pool.getSoftMs())) {
-                    pool.stopSearch();
+                if (mateScore || softTimeUp(searchStartMs, pool.getSoftMs()) || pool.nodeLimitReached()) {
+                    if (pool.isPondering()) pool.requestStopOnPonderHit();
+                    else pool.stopSearch();
                 }
             }
         }
@@ -269,8 +297,8 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
         // Heuristic 2: Score Instability
         // We measure the difference in evaluation between this depth and the previous one.
         // Large swings indicate a volatile position that needs more thought.
-        if (searchScores.size() >= 2) {
-            int prevScore = searchScores.get(searchScores.size() - 2);
+        if (searchScoreCount >= 2) {
+            int prevScore = searchScores[searchScoreCount - 2];
             int scoreDifference = Math.abs(lastScore - prevScore);
             instability += scoreDifference * CoreConstants.TM_INSTABILITY_SCORE_WEIGHT;
         }
@@ -308,7 +336,8 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
         if (ply > 0) {
             nodes++;
             if ((nodes & 2047) == 0) {
-                if (pool.isStopped() || (isMainThread && pool.shouldStop(pool.getSearchStartTime(), false))) {
+                if (pool.isStopped() || (isMainThread
+                        && (pool.shouldStop(pool.getSearchStartTime(), false) || pool.nodeLimitReached()))) {
                     pool.stopSearch();
                     return 0;
                 }
@@ -325,21 +354,24 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
         boolean ttHit = tt.wasHit(ttIndex, key);
 
         // 2. Use ttHit for the cutoff check
+        if (ENABLED && ply > 0) stats.ttProbes++;
         if (ttHit && tt.getDepth(ttIndex) >= depth && ply > 0 && !isPvNode) {
             int score = tt.getScore(ttIndex, ply);
             int flag = tt.getBound(ttIndex);
             if (flag == TranspositionTable.FLAG_EXACT ||
                     (flag == TranspositionTable.FLAG_LOWER && score >= beta) ||
                     (flag == TranspositionTable.FLAG_UPPER && score <= alpha)) {
+                if (ENABLED) stats.ttCutoffs++;
                 return score; // TT Hit
             }
         }
 
-        boolean inCheck = mg.kingAttacked(bb, PositionFactory.whiteToMove(bb[META]));
+        AttackInfo ai = attacks[ply];
+        mg.computeAttackInfo(bb, ai);
+        boolean inCheck = ai.inCheck();
         if (inCheck) depth++;
 
 
-        final int IIR_MIN_DEPTH = 4;
 
         // 3. Adjust IIR condition slightly to use ttHit
         if (depth >= IIR_MIN_DEPTH && isPvNode && (!ttHit || tt.getMove(ttIndex) == 0)) {
@@ -366,11 +398,10 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
         // This prunes branches where the static evaluation is so high that it's
         // unlikely any move will drop the score below beta. It's a cheap check
         // performed before the more expensive Null Move Pruning.
-        final int RFP_MAX_DEPTH = 8;
-        final int RFP_MARGIN = 75; // Margin per ply of depth
 
         if (!isPvNode && !inCheck && depth <= RFP_MAX_DEPTH && Math.abs(beta) < SCORE_MATE_IN_MAX_PLY) {
             if (staticEval - RFP_MARGIN * depth >= beta) {
+                if (ENABLED) stats.rfpPrunes++;
                 return beta; // Prune, static eval is high enough.
             }
         }
@@ -378,28 +409,25 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
         // --- ProbCut ---
         // Try a few good captures at reduced depth with a raised beta.
         // If any of them beats rBeta on a null window, prune this node.
-        if (!isPvNode && !inCheck && depth >= CoreConstants.PROBCUT_MIN_DEPTH && Math.abs(beta) < SCORE_MATE_IN_MAX_PLY) {
-            final int rBeta = Math.min(beta + CoreConstants.PROBCUT_MARGIN_CP, SCORE_MATE_IN_MAX_PLY - 1);
+        if (!isPvNode && !inCheck && depth >= PROBCUT_MIN_DEPTH && Math.abs(beta) < SCORE_MATE_IN_MAX_PLY) {
+            final int rBeta = Math.min(beta + PROBCUT_MARGIN_CP, SCORE_MATE_IN_MAX_PLY - 1);
 
-            int[] clist = moves[ply];
-            int ccount = mg.generateCaptures(bb, clist, 0);
-            moveOrderer.orderMoves(bb, clist, ccount, 0, killers[ply]);
-
-            for (int i = 0; i < ccount; i++) {
-                int mv = clist[i];
-
-                int seeGain = moveOrderer.see(bb, mv);
-                if (staticEval + seeGain < rBeta) continue;
+            // Only captures whose SEE can lift the static eval over rBeta are tried.
+            MovePicker picker = pickers[ply];
+            picker.initProbCut(bb, rBeta - staticEval, ai);
 
+            int mv;
+            while ((mv = picker.next()) != MovePicker.NONE) {
                 int capturedPiece = getCapturedPieceType(bb, mv);
                 int moverPiece    = (mv >>> 16) & 0xF;
 
-                if (!pf.makeMoveInPlace(bb, mv, mg)) continue;
+                pieceTo[ply] = moverPiece * 64 + (mv & 0x3F);
+                pf.makeLegalMoveInPlace(bb, mv);
                 nnue.updateNnueAccumulator(nnueState, bb, moverPiece, capturedPiece, mv);
 
                 int value;
 
-                if (depth >= 2 * CoreConstants.PROBCUT_MIN_DEPTH) {
+                if (depth >= 2 * PROBCUT_MIN_DEPTH) {
                     value = -quiescence(bb, -rBeta, -rBeta + 1, ply + 1);
                     if (value < rBeta) {
                         pf.undoMoveInPlace(bb);
@@ -409,7 +437,7 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
                     }
                 }
 
-                value = -pvs(bb, depth - CoreConstants.PROBCUT_REDUCTION, -rBeta, -rBeta + 1, ply + 1);
+                value = -pvs(bb, depth - PROBCUT_REDUCTION, -rBeta, -rBeta + 1, ply + 1);
 
                 pf.undoMoveInPlace(bb);
                 nnue.undoNnueAccumulatorUpdate(nnueState, bb, moverPiece, capturedPiece, mv);
@@ -417,7 +445,7 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
 
                 if (value >= rBeta) {
                     // Store a LOWER bound at a slightly reduced depth
-                    int storeDepth = Math.max(0, depth - Math.max(1, CoreConstants.PROBCUT_REDUCTION - 1));
+                    int storeDepth = Math.max(0, depth - Math.max(1, PROBCUT_REDUCTION - 1));
 
                     // If current TT entry is weaker, prefer our new bound
                     // (ttIndex/key/staticEval are already in scope in pvs)
@@ -436,6 +464,7 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
                         );
                     }
 
+                    if (ENABLED) stats.probCutPrunes++;
                     return value; // fast cutoff
                 }
             }
@@ -444,13 +473,14 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
         if (!inCheck && !isPvNode && depth >= 3 && ply > 0 && pf.hasNonPawnMaterial(bb)) {
             if (staticEval >= beta) {
                 // The reduction is larger for deeper searches.
-                int r = 3 + depth / 4;
+                int r = NMP_BASE + depth / NMP_DEPTH_DIV;
                 int nmpDepth = depth - 1 - r;
 
                 // Make the null move
                 long oldMeta = bb[META];
                 bb[META] ^= PositionFactory.STM_MASK;
                 bb[HASH] ^= PositionFactoryImpl.SIDE_TO_MOVE;
+                pieceTo[ply] = PIECE_TO;
 
                 int nullScore = -pvs(bb, nmpDepth, -beta, -beta + 1, ply + 1);
 
@@ -460,49 +490,32 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
 
                 // If the null-move search causes a cutoff, we can trust it and prune.
                 if (nullScore >= beta) {
+                    if (ENABLED) stats.nullMovePrunes++;
                     return beta; // Prune the node.
                 }
             }
         }
 
-        int[] list = moves[ply];
-        int nMoves;
-        int capturesEnd;
-
-        if (inCheck) {
-            nMoves = mg.generateEvasions(bb, list, 0);
-            capturesEnd = nMoves;
-        } else {
-            capturesEnd = mg.generateCaptures(bb, list, 0);
-            nMoves = mg.generateQuiets(bb, list, capturesEnd);
-        }
-
-        int ttMove = 0;
-        if (ttHit) {
-            ttMove = tt.getMove(ttIndex);
-            if (ttMove != 0) {
-                for (int i = 0; i < nMoves; i++) {
-                    if (list[i] == ttMove) {
-                        list[i] = list[0];
-                        list[0] = ttMove;
-                        break;
-                    }
-                }
-            }
-        }
-
-        moveOrderer.orderMoves(bb, list, nMoves, ttMove, killers[ply]);
+        int ttMove = ttHit ? tt.getMove(ttIndex) : 0;
+        MovePicker picker = pickers[ply];
+        final int cont1 = contRow(ply, 1);
+        final int cont2 = contRow(ply, 2);
+        picker.init(bb, ttMove, killers[ply], ai, cont1, cont2);
 
         int bestScore = -SCORE_INF;
         int localBestMove = 0;
         int originalAlpha = alpha;
         int legalMovesFound = 0;
-        // NEW: Track quiet moves searched. Reuse the buffer of the next ply.
-        int[] quietMovesSearched = moves[ply + 1];
+        // Track quiet moves searched for the history malus.
+        int[] quietMovesSearched = moves[ply];
         int quietMovesCount = 0;
+        int[] capturesSearched = capturesTried[ply];
+        int capturesCount = 0;
+        int moveCount = 0;
 
-        for (int i = 0; i < nMoves; i++) {
-            int mv = list[i];
+        int mv;
+        while ((mv = picker.next()) != MovePicker.NONE) {
+            int i = moveCount++;
 
             long nodesBeforeMove = this.nodes;
             int capturedPiece = getCapturedPieceType(bb, mv);
@@ -510,21 +523,24 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
             int from = (mv >>> 6) & 0x3F;
             int to = mv & 0x3F;
 
-            final int SEE_MARGIN_PER_DEPTH = -70;
-            if (!isPvNode && !inCheck && depth <= 8 && moveOrderer.see(bb, mv) < SEE_MARGIN_PER_DEPTH * depth) {
+            // SEE pruning applies to captures only; quiets are left to late-move pruning.
+            if (!isPvNode && !inCheck && depth <= 8 && capturedPiece != -1
+                    && !moveOrderer.seeGe(bb, mv, SEE_MARGIN_PER_DEPTH * depth, ai)) {
+                if (ENABLED) stats.seePrunes++;
                 continue; // Prune this move
             }
 
-            boolean isCapture = (i < capturesEnd);
+            boolean isCapture = capturedPiece != -1;
             boolean isPromotion = ((mv >>> 14) & 0x3) == 1;
             boolean isTactical = isCapture || isPromotion;
 
-            if (!isPvNode && !inCheck && depth <= CoreConstants.LMP_MAX_DEPTH && !isTactical && bestScore > -SCORE_MATE_IN_MAX_PLY) {
-                int lmpLimit = CoreConstants.LMP_BASE_MOVES + CoreConstants.LMP_DEPTH_SCALE * depth * depth;
+            if (!isPvNode && !inCheck && depth <= LMP_MAX_DEPTH && !isTactical && bestScore > -SCORE_MATE_IN_MAX_PLY) {
+                int lmpLimit = LMP_BASE_MOVES + LMP_DEPTH_SCALE * depth * depth;
                 if (i >= lmpLimit) {
                     int hist = history[from][to];
                     // If history is too weak, prune this late quiet
-                    if (hist < CoreConstants.LMP_HIST_MIN * depth) {
+                    if (hist < LMP_HIST_MIN * depth) {
+                        if (ENABLED) stats.lmpPrunes++;
                         continue;
                     }
                 }
@@ -539,6 +555,7 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
 
                     // If the static evaluation plus the margin is still below alpha, prune the move.
                     if (staticEval + margin < alpha) {
+                        if (ENABLED) stats.futilityPrunes++;
                         continue; // Prune this move
                     }
                 }
@@ -548,9 +565,12 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
                 if (quietMovesCount < LIST_CAP) { // LIST_CAP = 256
                     quietMovesSearched[quietMovesCount++] = mv;
                 }
+            } else if (isCapture && capturesCount < capturesSearched.length) {
+                capturesSearched[capturesCount++] = mv;
             }
 
-            if (!pf.makeMoveInPlace(bb, mv, mg)) continue;
+            pieceTo[ply] = moverPiece * 64 + to;
+            pf.makeLegalMoveInPlace(bb, mv);
             legalMovesFound++;
             nnue.updateNnueAccumulator(nnueState, bb, moverPiece, capturedPiece, mv);
 
@@ -562,14 +582,19 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
                 int reduction = 0;
                 if (depth >= LMR_MIN_DEPTH && i >= LMR_MIN_MOVE_COUNT && !isTactical && !inCheck) {
                     reduction = calculateReduction(depth, i);
+                    // Well-proven quiets are reduced less, ones that keep failing more.
+                    int stat = history[from][to] + contHistory[cont1 + pieceTo[ply]] + contHistory[cont2 + pieceTo[ply]];
+                    reduction = Math.max(0, reduction - stat / LMR_HISTORY_DIVISOR);
                 }
                 int reducedDepth = Math.max(0, depth - 1 - reduction);
 
                 // 2. Perform a fast zero-window search to test the move
                 score = -pvs(bb, reducedDepth, -alpha - 1, -alpha, ply + 1);
+                if (ENABLED && reduction > 0) stats.lmrSearches++;
 
                 // 3. If the test was promising (score > alpha), re-search with the full window and full depth
                 if (score > alpha) {
+                    if (ENABLED && reduction > 0) stats.lmrResearches++;
                     score = -pvs(bb, depth - 1, -beta, -alpha, ply + 1);
                 }
             }
@@ -588,14 +613,21 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
                     }
                     if (score >= beta) {
                         if (!isTactical) {
-                            applyHistoryUpdates(mv, depth, quietMovesSearched, quietMovesCount);
+                            applyHistoryUpdates(mv, depth, quietMovesSearched, quietMovesCount, cont1, cont2);
                         }
+                        applyCaptureHistoryUpdates(bb, isCapture ? mv : 0, depth, capturesSearched, capturesCount);
 
                         if (!isTactical) {
-                            if (killers[ply][0] != mv) {
+                            short compact = MoveGenerator.compact(mv);
+                            if (killers[ply][0] != compact) {
                                 killers[ply][1] = killers[ply][0];
-                                killers[ply][0] = mv;
+                                killers[ply][0] = compact;
                             }
+                            if (cont1 != CONT_NONE) counterMoves[cont1 / PIECE_TO] = compact;
+                        }
+                        if (ENABLED) {
+                            stats.cutoffs++;
+                            if (i == 0) stats.firstMoveCutoffs++;
                         }
                         break;
                     }
@@ -610,6 +642,11 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
         int flag = (bestScore >= beta) ? TranspositionTable.FLAG_LOWER
                 : (bestScore > originalAlpha) ? TranspositionTable.FLAG_EXACT
                 : TranspositionTable.FLAG_UPPER;
+        if (ENABLED) {
+            if (flag == TranspositionTable.FLAG_LOWER) stats.cutNodes++;
+            else if (flag == TranspositionTable.FLAG_EXACT) stats.pvNodes++;
+            else stats.allNodes++;
+        }
 
         tt.store(ttIndex, key, flag, depth, localBestMove, bestScore, staticEval, isPvNode, ply);
 
@@ -633,6 +670,7 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
         }
 
         nodes++;
+        if (ENABLED) stats.qNodes++;
 
         long key = pf.zobrist(bb);
         int ttIndex = tt.probe(key);
@@ -655,23 +693,24 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
             staticEval = tt.getStaticEval(ttIndex);
         }
 
-        boolean inCheck = mg.kingAttacked(bb, PositionFactory.whiteToMove(bb[META]));
+        AttackInfo ai = attacks[ply];
+        mg.computeAttackInfo(bb, ai);
+        boolean inCheck = ai.inCheck();
         int bestScore;
 
         if (inCheck) {
             // --- In Check: Search Evasions ---
-            int[] list = moves[ply];
-            int nMoves = mg.generateEvasions(bb, list, 0);
+            MovePicker picker = pickers[ply];
+            picker.initQuiescence(bb, ai);
             int legalMovesFound = 0;
             bestScore = -SCORE_INF;
-            moveOrderer.orderMoves(bb, list, nMoves, 0, killers[ply]);
 
-            for (int i = 0; i < nMoves; i++) {
-                int mv = list[i];
+            int mv;
+            while ((mv = picker.next()) != MovePicker.NONE) {
                 int capturedPiece = getCapturedPieceType(bb, mv);
                 int moverPiece = ((mv >>> 16) & 0xF);
 
-                if (!pf.makeMoveInPlace(bb, mv, mg)) continue;
+                pf.makeLegalMoveInPlace(bb, mv);
                 legalMovesFound++;
                 nnue.updateNnueAccumulator(nnueState, bb, moverPiece, capturedPiece, mv);
 
@@ -712,17 +751,16 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
                 alpha = bestScore;
             }
 
-            int[] list = moves[ply];
-            int nMoves = mg.generateCaptures(bb, list, 0);
-            nMoves = moveOrderer.seePrune(bb, list, nMoves);
-            moveOrderer.orderMoves(bb, list, nMoves, 0, killers[ply]);
+            // Losing captures (SEE < 0) are never returned by the quiescence picker.
+            MovePicker picker = pickers[ply];
+            picker.initQuiescence(bb, ai);
 
-            for (int i = 0; i < nMoves; i++) {
-                int mv = list[i];
+            int mv;
+            while ((mv = picker.next()) != MovePicker.NONE) {
                 int capturedPiece = getCapturedPieceType(bb, mv);
                 int moverPiece = ((mv >>> 16) & 0xF);
 
-                if (!pf.makeMoveInPlace(bb, mv, mg)) continue;
+                pf.makeLegalMoveInPlace(bb, mv);
                 nnue.updateNnueAccumulator(nnueState, bb, moverPiece, capturedPiece, mv);
 
                 int score = -quiescence(bb, -beta, -alpha, ply + 1);
@@ -779,9 +817,9 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
             long previousHash;
             if (prevPly < 0) {
                 // We've gone past the start of the search, so look in gameHistory.
-                int gameHistoryIdx = gameHistory.size() + prevPly;
+                int gameHistoryIdx = gameHistory.length + prevPly;
                 if (gameHistoryIdx >= 0) {
-                    previousHash = gameHistory.get(gameHistoryIdx);
+                    previousHash = gameHistory[gameHistoryIdx];
                 } else {
                     // We've searched past the beginning of the relevant game history.
                     break;
@@ -799,8 +837,6 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
     }
 
     private int getCapturedPieceType(long[] bb, int move) {
-        int to = move & 0x3F;
-        long toBit = 1L << to;
         int moveType = (move >>> 14) & 0x3;
         boolean isWhiteMover = (((move >>> 16) & 0xF) < 6);
 
@@ -808,12 +844,7 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
             return isWhiteMover ? PositionFactory.BP : PositionFactory.WP;
         }
 
-        for (int p = isWhiteMover ? PositionFactory.BP : PositionFactory.WP; p <= (isWhiteMover ? PositionFactory.BK : PositionFactory.WK); p++) {
-            if ((bb[p] & toBit) != 0) {
-                return p;
-            }
-        }
-        return -1; // No capture
+        return PositionFactory.pieceAt(bb, move & 0x3F); // -1: no capture
     }
 
     /**
@@ -821,49 +852,109 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
      */
     private static int calculateHistoryBonus(int depth) {
         // Use a formula similar to Serendipity: (300*d - 300).
-        int bonus = Math.max(0, depth * 300 - 300);
+        int bonus = Math.max(0, depth * HISTORY_BONUS_SCALE - HISTORY_BONUS_SCALE);
         return Math.min(bonus, HISTORY_MAX - 1); // Clamp
     }
 
     /**
-     * Updates history score using exponential decay (scaling).
+     * Gravity update shared by every history table: pulls the entry towards the
+     * bound by {@code delta}, the harder the closer it already is.
      * new = old + delta - (old * abs(delta)) / HISTORY_MAX
      */
-    private void updateHistoryScore(int from, int to, int delta) {
+    private static void updateHistoryScore(int[] table, int index, int delta) {
         int clampedDelta = Math.max(-HISTORY_MAX, Math.min(HISTORY_MAX, delta));
 
         // Use long for intermediate multiplication to prevent overflow
-        history[from][to] += clampedDelta - (int)(((long) history[from][to] * Math.abs(clampedDelta)) / HISTORY_MAX);
+        table[index] += clampedDelta - (int)(((long) table[index] * Math.abs(clampedDelta)) / HISTORY_MAX);
+    }
+
+    /** Butterfly plus one- and two-ply continuation update for one quiet move. */
+    private void updateQuietHistory(int mv, int delta, int cont1, int cont2) {
+        int pt = ((mv >>> 16) & 0xF) * 64 + (mv & 0x3F);
+        updateHistoryScore(history[(mv >>> 6) & 0x3F], mv & 0x3F, delta);
+        if (cont1 != CONT_NONE) updateHistoryScore(contHistory, cont1 + pt, delta);
+        if (cont2 != CONT_NONE) updateHistoryScore(contHistory, cont2 + pt, delta);
     }
 
     /**
      * Applies bonus to the best move and malus to others.
      */
-    private void applyHistoryUpdates(int bestMove, int depth, int[] quietMoves, int count) {
+    private void applyHistoryUpdates(int bestMove, int depth, int[] quietMoves, int count, int cont1, int cont2) {
         int bonus = calculateHistoryBonus(depth);
         int malus = -bonus;
 
         // Bonus for the cutoff move
-        updateHistoryScore((bestMove >>> 6) & 0x3F, bestMove & 0x3F, bonus);
+        updateQuietHistory(bestMove, bonus, cont1, cont2);
 
         // Malus for others that were searched but failed
         for (int i = 0; i < count; i++) {
             int mv = quietMoves[i];
             // The best move is also in this list; skip it as we already applied the bonus.
             if (mv == bestMove) continue;
-            updateHistoryScore((mv >>> 6) & 0x3F, mv & 0x3F, malus);
+            updateQuietHistory(mv, malus, cont1, cont2);
+        }
+    }
+
+    /**
+     * On a cutoff, rewards the refuting capture (if it was one) and penalises
+     * every other capture searched before it.
+     */
+    private void applyCaptureHistoryUpdates(long[] bb, int bestCapture, int depth, int[] captures, int count) {
+        int bonus = calculateHistoryBonus(depth);
+        for (int i = 0; i < count; i++) {
+            int mv = captures[i];
+            updateHistoryScore(captureHistory, captureIndex(bb, mv), mv == bestCapture ? bonus : -bonus);
         }
     }
 
+    private static int captureIndex(long[] bb, int mv) {
+        int victim = ((mv >>> 14) & 0x3) == 2 ? 0 : PositionFactory.pieceAt(bb, mv & 0x3F) % 6;
+        return (((mv >>> 16) & 0xF) * 64 + (mv & 0x3F)) * 6 + victim;
+    }
+
+    /**
+     * Halves every history table at the start of a search. The tables live as
+     * long as the worker, so ordering starts warm from the previous move, but
+     * old statistics fade instead of saturating over a long game.
+     */
+    private void ageHistory() {
+        for (int[] row : history) {
+            for (int i = 0; i < row.length; i++) row[i] /= 2;
+        }
+        for (int i = 0; i < captureHistory.length; i++) captureHistory[i] /= 2;
+        for (int i = 0; i < contHistory.length; i++) contHistory[i] /= 2;
+    }
+
+    @Override
+    public void clearHistory() {
+        for (int[] row : history) Arrays.fill(row, 0);
+        Arrays.fill(captureHistory, 0);
+        Arrays.fill(contHistory, 0);
+        Arrays.fill(counterMoves, (short) 0);
+    }
+
+    /** Offset of the continuation row for the move {@code back} plies above {@code ply}. */
+    private int contRow(int ply, int back) {
+        return ply >= back ? pieceTo[ply - back] * PIECE_TO : CONT_NONE;
+    }
+
     @Override
     public void prepareForSearch(long[] root, SearchSpec s, PositionFactory p, MoveGenerator m, TranspositionTable t, TimeManager timeMgr) {
-        this.rootBoard = root.clone();
+        System.arraycopy(root, 0, rootBoard, 0, PositionFactory.BB_LEN);
+        PositionFactory.clearUndoStack(rootBoard);   // the search never undoes past its root
         this.spec = s;
         this.pf = p;
         this.mg = m;
         this.tt = t;
+        if (pickerMg != m) {
+            for (int i = 0; i < pickers.length; i++)
+                pickers[i] = new MovePickerImpl(m, moveOrderer, history, captureHistory, contHistory, counterMoves);
+            pickerMg = m;
+        }
         this.tm = timeMgr;
-        this.gameHistory = s.history();
+        List<Long> h = s.history();
+        if (gameHistory.length != h.size()) gameHistory = new long[h.size()];
+        for (int i = 0; i < gameHistory.length; i++) gameHistory[i] = h.get(i);
     }
 
     public void startWorkerSearch() {
@@ -893,9 +984,17 @@ public final class SearchWorkerImpl implements Runnable, SearchWorker {
 
     @Override public void setInfoHandler(InfoHandler handler) { this.ih = handler; }
     @Override public SearchResult getSearchResult() {
-        return new SearchResult(bestMove, ponderMove, pv, lastScore, mateScore, completedDepth, nodes, elapsedMs);
+        return new SearchResult(bestMove, ponderMove, pvAsList(), lastScore, mateScore, completedDepth, nodes, elapsedMs);
     }
     @Override public long getNodes() { return nodes; }
+    @Override public SearchStats getStats() { return stats; }
+
+    /** Boxed copy of the root PV – built only when a result or info line is reported. */
+    private List<Integer> pvAsList() {
+        List<Integer> list = new ArrayList<>(rootPvLen);
+        for (int i = 0; i < rootPvLen; i++) list.add(rootPv[i]);
+        return list;
+    }
     @Override public void terminate() {
         mutex.lock();
         try {
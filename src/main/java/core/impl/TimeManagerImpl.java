@@ -22,6 +22,11 @@ public final class TimeManagerImpl implements TimeManager {
             return new TimeAllocation(time, time);
         }
 
+        // No clock at all ("go depth N", "go nodes N"): the other limits govern the search.
+        if (spec.wTimeMs() <= 0 && spec.bTimeMs() <= 0) {
+            return new TimeAllocation(Long.MAX_VALUE, Long.MAX_VALUE);
+        }
+
         boolean isWhiteToMove = PositionFactory.whiteToMove(boardState[PositionFactory.META]);
         long playerTime = isWhiteToMove ? spec.wTimeMs() : spec.bTimeMs();
         long playerInc = isWhiteToMove ? spec.wIncMs() : spec.bIncMs();
@@ -1,34 +1,40 @@
 package core.impl;
 
+import core.contracts.MoveGenerator;
 import core.contracts.TranspositionTable;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.Arrays;
 import static core.constants.CoreConstants.*;
 
 public final class TranspositionTableImpl implements TranspositionTable {
 
-    /* Each entry occupies 2 consecutive longs (16 bytes) in the table array.
+    /* A bucket is 4 consecutive longs (32 bytes): one long with the 16-bit key
+     * checks of its three entries (bits 0-15, 16-31, 32-47), then the entries.
+     * An entry index is the array index of the entry's long.
      *
-     * long 1 (data):
-     * - 32 bits: zobrist check (upper 32 bits of the key)
-     * - 32 bits: move
-     *
-     * long 2 (meta):
-     * - 16 bits: static eval
+     * entry:
+     * - 16 bits: move (compact form)
      * - 16 bits: score
+     * - 16 bits: static eval
      * - 8 bits:  depth
      * - 5 bits:  age
      * - 2 bits:  bound type
      * - 1 bit:   isPV
      */
-    private static final int LONGS_PER_ENTRY = 2;
+    private static final int LONGS_PER_BUCKET = 4;
 
     private static final int TT_MAX_AGE = 32;   // 5 bits for age (0-31)
     private static final int TT_AGE_WEIGHT = 8;
     private static final int TT_BUCKET_SIZE = 3; // 3-way set associative
 
+    /* The three checks of a bucket share one long: a lane is swapped in with a
+     * CAS so that threads storing to neighbouring slots never undo each other. */
+    private static final VarHandle TABLE = MethodHandles.arrayElementVarHandle(long[].class);
+
     private long[] table;
     private int entryCount;
-    private int bucketMask; // (entryCount / BUCKET_SIZE) - 1
+    private int bucketMask; // bucket count - 1
 
     private volatile byte generation; // Current table age, kept volatile for visibility
 
@@ -37,29 +43,35 @@ public final class TranspositionTableImpl implements TranspositionTable {
     }
 
     /* ── Bit-packing/Unpacking ──────────────────────── */
-    private static int checkFromKey(long z)      { return (int) (z >>> 32); }
-    private static int checkFromData(long data)  { return (int) (data >>> 32); }
-    private static int moveFromData(long data)   { return (int) data; }
-
-    private static short evalFromMeta(long meta) { return (short) meta; }
-    private static short scoreFromMeta(long meta){ return (short) (meta >>> 16); }
-    private static int depthFromMeta(long meta)  { return (int) ((meta >>> 32) & 0xFF); }
-    private static int ageFromMeta(long meta)    { return (int) ((meta >>> 40) & 0x1F); }
-    private static int boundFromMeta(long meta)  { return (int) ((meta >>> 45) & 0x3); }
-    private static boolean pvFromMeta(long meta) { return ((meta >>> 47) & 1) == 1; }
-
-    private int getAgeDistance(long meta) {
-        return (generation - ageFromMeta(meta) + TT_MAX_AGE) & (TT_MAX_AGE - 1);
+    private static int checkFromKey(long z)      { return (int) (z >>> 48); }
+    private static int moveFromEntry(long e)     { return (int) (e & 0xFFFF); }
+    private static short scoreFromEntry(long e)  { return (short) (e >>> 16); }
+    private static short evalFromEntry(long e)   { return (short) (e >>> 32); }
+    private static int depthFromEntry(long e)    { return (int) ((e >>> 48) & 0xFF); }
+    private static int ageFromEntry(long e)      { return (int) ((e >>> 56) & 0x1F); }
+    private static int boundFromEntry(long e)    { return (int) ((e >>> 61) & 0x3); }
+    private static boolean pvFromEntry(long e)   { return (e >>> 63) == 1; }
+
+    /** Bit offset of an entry's check inside its bucket's key long. */
+    private static int checkShift(int entryIndex) { return ((entryIndex & (LONGS_PER_BUCKET - 1)) - 1) << 4; }
+    private static int keyIndex(int entryIndex)   { return entryIndex & -LONGS_PER_BUCKET; }
+
+    private int checkAt(int entryIndex) {
+        return (int) (table[keyIndex(entryIndex)] >>> checkShift(entryIndex)) & 0xFFFF;
+    }
+
+    private int getAgeDistance(long entry) {
+        return (generation - ageFromEntry(entry) + TT_MAX_AGE) & (TT_MAX_AGE - 1);
     }
 
     private int worth(int entryIndex) {
-        long meta = table[entryIndex + 1];
-        if (meta == 0) return Integer.MIN_VALUE; // Empty slots are the best victims
-        return depthFromMeta(meta) - TT_AGE_WEIGHT * getAgeDistance(meta);
+        long entry = table[entryIndex];
+        if (entry == 0) return Integer.MIN_VALUE; // Empty slots are the best victims
+        return depthFromEntry(entry) - TT_AGE_WEIGHT * getAgeDistance(entry);
     }
 
     private boolean isEmpty(int entryIndex) {
-        return table[entryIndex] == 0 && table[entryIndex + 1] == 0;
+        return table[entryIndex] == 0;
     }
 
     /* ── Addressing ──────────────────────────────── */
@@ -72,22 +84,21 @@ public final class TranspositionTableImpl implements TranspositionTable {
 
     private int bucketBase(long z) {
         int bucketIndex = (int) splitmix64(z) & bucketMask;
-        return bucketIndex * TT_BUCKET_SIZE * LONGS_PER_ENTRY;
+        return bucketIndex * LONGS_PER_BUCKET;
     }
 
     /* ── Life-cycle ──────────────────────────────── */
     @Override
     public synchronized void resize(int mb) {
         long bytes = (long) mb * 1_048_576L;
-        long numEntries = bytes / (LONGS_PER_ENTRY * 8); // 16 bytes per entry
-        if (numEntries < TT_BUCKET_SIZE) throw new IllegalArgumentException("TT size too small");
+        long numBuckets = bytes / (LONGS_PER_BUCKET * 8); // 32 bytes per bucket
+        if (numBuckets < 1) throw new IllegalArgumentException("TT size too small");
 
-        long numBuckets = numEntries / TT_BUCKET_SIZE;
-        int pow2Buckets = Integer.highestOneBit((int) Math.min(numBuckets, 1 << 30));
+        int pow2Buckets = Integer.highestOneBit((int) Math.min(numBuckets, 1 << 28));
 
         this.entryCount = pow2Buckets * TT_BUCKET_SIZE;
         this.bucketMask = pow2Buckets - 1;
-        this.table = new long[this.entryCount * LONGS_PER_ENTRY];
+        this.table = new long[pow2Buckets * LONGS_PER_BUCKET];
         this.generation = 0;
     }
 
@@ -100,21 +111,21 @@ public final class TranspositionTableImpl implements TranspositionTable {
     public int probe(long zKey) {
         int keyCheck = checkFromKey(zKey);
         int baseIndex = bucketBase(zKey);
+        long checks = table[baseIndex];
 
         // 1. Look for an exact match
         for (int i = 0; i < TT_BUCKET_SIZE; ++i) {
-            int entryIndex = baseIndex + i * LONGS_PER_ENTRY;
-            if (checkFromData(table[entryIndex]) == keyCheck) {
-                return entryIndex;
+            if (((int) (checks >>> (i << 4)) & 0xFFFF) == keyCheck) {
+                return baseIndex + 1 + i;
             }
         }
 
         // 2. No hit, find the best victim for replacement
-        int victimIndex = baseIndex;
+        int victimIndex = baseIndex + 1;
         int worstWorth = worth(victimIndex);
 
         for (int i = 1; i < TT_BUCKET_SIZE; ++i) {
-            int entryIndex = baseIndex + i * LONGS_PER_ENTRY;
+            int entryIndex = baseIndex + 1 + i;
             int w = worth(entryIndex);
             if (w < worstWorth) {
                 worstWorth = w;
@@ -126,21 +137,21 @@ public final class TranspositionTableImpl implements TranspositionTable {
 
     @Override
     public boolean wasHit(int entryIndex, long zobrist) {
-        return checkFromData(table[entryIndex]) == checkFromKey(zobrist) && !isEmpty(entryIndex);
+        return checkAt(entryIndex) == checkFromKey(zobrist) && !isEmpty(entryIndex);
     }
 
     @Override
     public void store(int entryIndex, long zobrist, int bound, int depth, int move, int score, int staticEval, boolean isPv, int ply) {
         boolean isHit = wasHit(entryIndex, zobrist);
-        long oldMeta = isHit ? table[entryIndex + 1] : 0;
+        long oldEntry = isHit ? table[entryIndex] : 0;
 
         // Overwrite policy
         boolean replace;
         if (!isHit) {
             replace = true;
         } else {
-            int ageDist = getAgeDistance(oldMeta);
-            int currentDepth = depthFromMeta(oldMeta);
+            int ageDist = getAgeDistance(oldEntry);
+            int currentDepth = depthFromEntry(oldEntry);
             replace = (bound == FLAG_EXACT)
                     || ageDist != 0
                     || depth + (isPv ? 6 : 4) > currentDepth;
@@ -150,7 +161,7 @@ public final class TranspositionTableImpl implements TranspositionTable {
 
         // Keep the existing move if the new move is null
         if (move == 0 && isHit) {
-            move = moveFromData(table[entryIndex]);
+            move = moveFromEntry(oldEntry);
         }
 
         // Encode mate scores
@@ -159,27 +170,34 @@ public final class TranspositionTableImpl implements TranspositionTable {
             else if (score <= SCORE_TB_LOSS_IN_MAX_PLY) score -= ply;
         }
 
-        // Pack data into two longs
-        long newData = ((long) checkFromKey(zobrist) << 32) | (move & 0xFFFFFFFFL);
-        long newMeta = (staticEval & 0xFFFFL)
-                | ((long) (score & 0xFFFFL) << 16)
-                | ((long) depth << 32)
-                | ((long) generation << 40)
-                | ((long) bound << 45)
-                | ((isPv ? 1L : 0L) << 47);
-
-        // Standard array write
-        table[entryIndex + 1] = newMeta;
-        table[entryIndex] = newData;
+        // Pack the entry into one long
+        long newEntry = (move & (long) MoveGenerator.COMPACT_MASK)
+                | ((score & 0xFFFFL) << 16)
+                | ((staticEval & 0xFFFFL) << 32)
+                | ((depth & 0xFFL) << 48)
+                | ((long) generation << 56)
+                | ((long) bound << 61)
+                | ((isPv ? 1L : 0L) << 63);
+
+        // The entry is a plain write; its lane in the key long goes in by CAS
+        long[] t = table;
+        int keyIndex = keyIndex(entryIndex);
+        int shift = checkShift(entryIndex);
+        long lane = (long) checkFromKey(zobrist) << shift;
+        t[entryIndex] = newEntry;
+        long checks;
+        do {
+            checks = t[keyIndex];
+        } while (!TABLE.compareAndSet(t, keyIndex, checks, (checks & ~(0xFFFFL << shift)) | lane));
     }
 
     /* ── Accessors ──────────────────────────────── */
-    @Override public int getDepth(int entryIndex) { return depthFromMeta(table[entryIndex + 1]); }
-    @Override public int getBound(int entryIndex) { return boundFromMeta(table[entryIndex + 1]); }
-    @Override public int getMove(int entryIndex) { return moveFromData(table[entryIndex]); }
-    @Override public int getStaticEval(int entryIndex) { return evalFromMeta(table[entryIndex + 1]); }
-    @Override public int getRawScore(int entryIndex) { return scoreFromMeta(table[entryIndex + 1]); }
-    @Override public boolean wasPv(int entryIndex) { return pvFromMeta(table[entryIndex + 1]); }
+    @Override public int getDepth(int entryIndex) { return depthFromEntry(table[entryIndex]); }
+    @Override public int getBound(int entryIndex) { return boundFromEntry(table[entryIndex]); }
+    @Override public int getMove(int entryIndex) { return moveFromEntry(table[entryIndex]); }
+    @Override public int getStaticEval(int entryIndex) { return evalFromEntry(table[entryIndex]); }
+    @Override public int getRawScore(int entryIndex) { return scoreFromEntry(table[entryIndex]); }
+    @Override public boolean wasPv(int entryIndex) { return pvFromEntry(table[entryIndex]); }
 
     @Override
     public int hashfull() {
@@ -188,8 +206,8 @@ public final class TranspositionTableImpl implements TranspositionTable {
         if (sampleSize == 0) return 0;
 
         for (int i = 0; i < sampleSize; ++i) {
-            int entryIndex = i * LONGS_PER_ENTRY;
-            if (!isEmpty(entryIndex) && ageFromMeta(table[entryIndex + 1]) == generation) {
+            int entryIndex = (i / TT_BUCKET_SIZE) * LONGS_PER_BUCKET + 1 + i % TT_BUCKET_SIZE;
+            if (!isEmpty(entryIndex) && ageFromEntry(table[entryIndex]) == generation) {
                 filled++;
             }
         }
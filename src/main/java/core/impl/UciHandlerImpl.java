@@ -4,10 +4,15 @@ import core.contracts.*;
 import core.records.SearchInfo;
 import core.records.SearchResult;
 import core.records.SearchSpec;
+import core.records.SearchStats;
 import main.Main;
 
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -21,12 +26,12 @@ import java.util.stream.Collectors;
  * Universal-Chess-Interface front-end.
  *
  * <p>All interaction with {@link Search} happens behind a single
- * monitor ({@code searchLock}) so that:</p>
- * <ul>
- *   <li>only <em>one</em> search can run at a time</li>
- *   <li>“info …” and “bestmove …” from an <em>old</em> search are
- *       never printed after a new position / search has started</li>
- * </ul>
+ * monitor ({@code searchLock}) so that only <em>one</em> search can run at
+ * a time. Search results arrive on the engine's main worker thread and are
+ * matched against the current search under a second monitor
+ * ({@code resultLock}), which is never held while waiting for a search, so
+ * “info …” and “bestmove …” from an <em>old</em> search are never printed
+ * after a new search has started.</p>
  */
 public final class UciHandlerImpl implements UciHandler {
     public static final List<String> BENCH_FENS = List.of(
@@ -66,34 +71,61 @@ public final class UciHandlerImpl implements UciHandler {
             "8/8/1p1k2p1/p1prp2p/P2n3P/6P1/1P1R1PK1/4R3 b - - 5 49",
             "8/8/1p4p1/p1p2k1p/P2npP1P/4K1P1/1P6/3R4 w - - 6 54"
     );
+    private static final int PERFT_HASH_MB = 64;
+
     /* ── engine singletons ─────────────────────────────────────── */
     private final Search          search;
     private final PositionFactory pf;
     private final UciOptions      opts;
     private final MoveGenerator mg;
+    private final InputStream   in;
+    private final UciOutput     out;
 
     /* ── mutable engine state (guarded by searchLock) ──────────── */
     private final Object searchLock = new Object();
+    /** guards {@code searchId} against the completion callback */
+    private final Object resultLock = new Object();
 
     /** side effect-free copy of the current position */
     private long[] currentPos;
     /** all previous Zobrist keys (for 3-fold repetition) */
     private final List<Long> history = new ArrayList<>();
+    /** “startpos” or the FEN of the last “position” command, and the moves played from it */
+    private String positionBase;
+    private final List<String> positionMoves = new ArrayList<>();
+
+    /** perft driver for “go perft N”, created on first use */
+    private Perft perft;
 
     /** handle of the search currently in flight (nullable) */
-    private CompletableFuture<SearchResult> searchFuture;
+    private CompletableFuture<Void> searchFuture;
     /** incremented for every new “go”, used to ignore stale callbacks */
-    private int searchId = 0;
+    private volatile int searchId = 0;
+    /** set once the "Warmup" search has run (or was not wanted) */
+    private boolean warmedUp;
 
     /* ── construction ──────────────────────────────────────────── */
+    /** Talks UCI over the process's standard input and output. */
     public UciHandlerImpl(Search search,
                           PositionFactory pf,
                           UciOptions opts,
                           MoveGenerator mg) {
+        this(search, pf, opts, mg, System.in, new FileOutputStream(FileDescriptor.out));
+    }
+
+    /** Talks UCI over the given streams, e.g. one connection of {@link UciServer}. */
+    public UciHandlerImpl(Search search,
+                          PositionFactory pf,
+                          UciOptions opts,
+                          MoveGenerator mg,
+                          InputStream in,
+                          OutputStream out) {
         this.search = search;
         this.pf     = pf;
         this.opts   = opts;
         this.mg    = mg;
+        this.in    = in;
+        this.out   = new UciOutputImpl(out);
 
         // start-pos
         this.currentPos = pf.fromFen(
@@ -102,11 +134,14 @@ public final class UciHandlerImpl implements UciHandler {
 
     /* ── main loop ─────────────────────────────────────────────── */
     @Override public void runLoop() {
-        try (Scanner in = new Scanner(System.in)) {
-            while (in.hasNextLine()) {
-                String line = in.nextLine().trim();
+        try (Scanner lines = new Scanner(in)) {
+            while (lines.hasNextLine()) {
+                String line = lines.nextLine().trim();
                 if (!line.isEmpty() && handle(line)) break;   // “quit” → exit
             }
+        } finally {
+            cmdStop();          // the GUI went away without "quit": don't leave a search running
+            out.close();
         }
     }
 
@@ -116,16 +151,17 @@ public final class UciHandlerImpl implements UciHandler {
 
         return switch (t[0]) {
             case "uci"          -> { cmdUci();        yield false; }
-            case "isready"      -> { System.out.println("readyok"); yield false; }
+            case "isready"      -> { warmUpOnce(); out.println("readyok"); yield false; }
             case "ucinewgame"   -> { cmdNewGame();    yield false; }
-            case "setoption"    -> { opts.setOption(cmd); yield false; }
+            case "setoption"    -> { opts.setOption(cmd, out); yield false; }
             case "position"     -> { cmdPosition(t);  yield false; }
             case "go"           -> { cmdGo(t);        yield false; }
             case "stop"         -> { cmdStop();       yield false; }
             case "ponderhit"    -> { search.ponderHit(); yield false; }
+            case "stats"        -> { cmdStats();      yield false; }
             case "quit"         -> { cmdStop();       yield true;  }
             default             -> { // unknown
-                System.out.println("info string Unknown command: " + cmd);
+                out.println("info string Unknown command: " + cmd);
                 yield false;
             }
         };
@@ -134,17 +170,38 @@ public final class UciHandlerImpl implements UciHandler {
     /* ── UCI commands ─────────────────────────────────────────── */
 
     private void cmdUci() {
-        System.out.println("id name Helios");
-        System.out.println("id author Your Name");
-        opts.printOptions();
-        System.out.println("uciok");
+        out.println("id name Helios");
+        out.println("id author Your Name");
+        opts.printOptions(out);
+        out.println("info string slider attacks " + (PreCompMoveGenTables.USE_PEXT ? "pext" : "magic")
+                + " (" + PreCompMoveGenTables.BACKEND_REASON + ")");
+        out.println("uciok");
     }
 
     private void cmdNewGame() {
         synchronized (searchLock) {
             cancelRunningSearch();
+            warmUpOnce();
             opts.getTranspositionTable().clear();
+            search.clearHistory();
             history.clear();
+            positionBase = null;
+            positionMoves.clear();
+        }
+    }
+
+    /**
+     * Runs the "Warmup" searches the first time the GUI waits for the engine,
+     * so the JIT has compiled the search before the clock of the first game
+     * starts. Never while a search is in flight: an isready during a search
+     * must be answered at once.
+     */
+    private void warmUpOnce() {
+        synchronized (searchLock) {
+            if (warmedUp || (searchFuture != null && !searchFuture.isDone())) return;
+            warmedUp = true;
+            long ms = Long.parseLong(opts.getOptionValue("Warmup"));
+            if (ms > 0) WarmUp.run(pf, mg, ms);
         }
     }
 
@@ -152,41 +209,69 @@ public final class UciHandlerImpl implements UciHandler {
         synchronized (searchLock) { cancelRunningSearch(); }
     }
 
+    /**
+     * A GUI resends the whole game with every move, so when the base position
+     * is unchanged and the move list extends the one already played, only the
+     * new moves are applied.
+     */
     private void cmdPosition(String[] t) {
         synchronized (searchLock) {
             cancelRunningSearch();
+            if (t.length < 2) return;                            // malformed
 
             int i = 1;
+            String base;
             if ("startpos".equals(t[i])) {                       // startpos
-                currentPos = pf.fromFen(
-                        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+                base = "startpos";
                 i++;
             } else if ("fen".equals(t[i])) {                     // FEN …
                 StringBuilder fen = new StringBuilder();
                 while (++i < t.length && !"moves".equals(t[i]))
                     fen.append(t[i]).append(' ');
-                currentPos = pf.fromFen(fen.toString().trim());
+                base = fen.toString().trim();
             } else {
                 return;                                          // malformed
             }
 
-            history.clear();
-            history.add(currentPos[PositionFactory.HASH]);
-
-            /* optional move list */
-            if (i < t.length && "moves".equals(t[i])) {
-                MoveGenerator mg = new MoveGeneratorImpl();
-                for (int k = i + 1; k < t.length; k++) {
-                    int mv = UciMove.stringToMove(currentPos, t[k], mg);
-                    if (mv != 0 && pf.makeMoveInPlace(currentPos, mv, mg))
-                        history.add(currentPos[PositionFactory.HASH]);
+            int first = (i < t.length && "moves".equals(t[i])) ? i + 1 : t.length;
+            if (!continuesLastPosition(base, t, first)) {
+                currentPos = pf.fromFen(base.equals("startpos")
+                        ? "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1" : base);
+                positionBase = base;
+                positionMoves.clear();
+                history.clear();
+            }
+
+            /* the moves not played yet; the first bad one ends the list, and is not remembered */
+            for (int k = first + positionMoves.size(); k < t.length; k++) {
+                int mv = UciMove.stringToMove(currentPos, t[k], mg);
+                long key = currentPos[PositionFactory.HASH];
+                if (mv == 0 || !pf.makeMoveInPlace(currentPos, mv, mg)) {
+                    out.println("info string Illegal move " + t[k] + ", ignoring it and the rest");
+                    break;
                 }
-                history.remove(history.size() - 1);              // last == current
+                PositionFactory.clearUndoStack(currentPos);
+                positionMoves.add(t[k]);
+                history.add(key);
             }
         }
     }
 
+    /** @return true if {@code t[first..]} starts with every move of the last position command */
+    private boolean continuesLastPosition(String base, String[] t, int first) {
+        if (!base.equals(positionBase) || t.length - first < positionMoves.size()) return false;
+        for (int k = 0; k < positionMoves.size(); k++)
+            if (!positionMoves.get(k).equals(t[first + k])) return false;
+        return true;
+    }
+
     private void cmdGo(String[] t) {
+        if (t.length > 2 && "perft".equals(t[1])) {
+            try { cmdPerft(Integer.parseInt(t[2])); }
+            catch (IllegalArgumentException ex) { out.println("info string perft: " + ex.getMessage()); }
+            return;
+        }
+
         /* 1) build SearchSpec ---------------------------------- */
         SearchSpec.Builder b = new SearchSpec.Builder();
         for (int i = 1; i < t.length; i++)
@@ -207,26 +292,63 @@ public final class UciHandlerImpl implements UciHandler {
         synchronized (searchLock) {
             cancelRunningSearch();
 
-            myId = ++searchId;
+            synchronized (resultLock) { myId = ++searchId; }
             b.history(new ArrayList<>(history));
 
             opts.getTranspositionTable().incrementAge();
 
+            /*
+             * The completion runs on the worker that finished the search. The
+             * field holds the end of the chain, not the search itself: joining
+             * the search alone could return before the bestmove was printed, and
+             * the next searchId would then suppress it.
+             */
             searchFuture = search.searchAsync(
                     currentPos.clone(),
                     b.build(),
-                    info -> { if (myId == searchId) printInfo(info); });
+                    info -> { if (myId == searchId) printInfo(info); })
+                .thenAccept(r -> {
+                    synchronized (resultLock) {
+                        if (myId == searchId) {
+                            if (SearchStats.ENABLED) printStats();
+                            printResult(r);
+                        }
+                    }
+                }).exceptionally(ex -> {
+                    out.println("info string search error: " + ex);
+                    return null;
+                });
         }
+    }
 
-        /* handle completion asynchronously */
-        searchFuture.thenAccept(r -> {
-            synchronized (searchLock) {
-                if (myId == searchId) printResult(r);
-            }
-        }).exceptionally(ex -> {
-            System.out.println("info string search error: " + ex);
-            return null;
-        });
+    /** “stats”: the statistics of the last search, when the engine collects them. */
+    private void cmdStats() {
+        synchronized (searchLock) {
+            if (SearchStats.ENABLED) printStats();
+            else out.println("info string statistics are off, run with -Dhelios.stats=true");
+        }
+    }
+
+    private void printStats() {
+        for (String line : search.getStats().report()) out.println("info string stats " + line);
+    }
+
+    /** “go perft N”: divide output, one line per root move, then the total. */
+    private void cmdPerft(int depth) {
+        synchronized (searchLock) {
+            cancelRunningSearch();
+            if (perft == null)
+                perft = new PerftImpl(pf, mg, PERFT_HASH_MB, Runtime.getRuntime().availableProcessors());
+
+            long t0 = System.nanoTime();
+            long nodes = perft.divide(currentPos, depth,
+                    (mv, n) -> out.println(UciMove.moveToUci(mv) + ": " + n));
+            long ms = (System.nanoTime() - t0) / 1_000_000;
+
+            out.println("");
+            out.println("Nodes searched: " + nodes);
+            out.println(String.format("info string perft time %d nps %d", ms, ms > 0 ? 1000L * nodes / ms : 0));
+        }
     }
 
     /* ── local helpers ────────────────────────────────────────── */
@@ -277,19 +399,19 @@ public final class UciHandlerImpl implements UciHandler {
             sb.append(" pv");
             si.pv().forEach(mv -> sb.append(' ').append(UciMove.moveToUci(mv)));
         }
-        System.out.println(sb);
+        out.info(sb.toString());
     }
 
     private void printResult(SearchResult r) {
         String best   = UciMove.moveToUci(r.bestMove());
         String ponder = r.ponderMove() == 0 ? "" :
                 " ponder " + UciMove.moveToUci(r.ponderMove());
-        System.out.println("bestmove " + best + ponder);
+        out.println("bestmove " + best + ponder);
     }
 
     /* ── tiny utility helpers ────────────────────────────────── */
 
-    private static final class UciMove {
+    static final class UciMove {
 
         static String moveToUci(int m) {
             if (m == 0) return "0000";
@@ -300,20 +422,39 @@ public final class UciHandlerImpl implements UciHandler {
             return res;
         }
 
+        /**
+         * Decodes a move such as “e7e8q” straight from its characters: the
+         * mover is read off the board, castling and en passant from the shape
+         * of the move. Returns 0 unless the result is pseudo-legal.
+         */
         static int stringToMove(long[] pos, String s, MoveGenerator mg) {
-            int[] list = new int[256];
-            boolean inCheck = PositionFactory.whiteToMove(
-                    pos[PositionFactory.META])
-                    ? mg.kingAttacked(pos, true)
-                    : mg.kingAttacked(pos, false);
-
-            int n = inCheck ? mg.generateEvasions(pos, list, 0)
-                    : mg.generateQuiets(pos, list,
-                    mg.generateCaptures(pos, list, 0));
-
-            for (int i = 0; i < n; i++)
-                if (moveToUci(list[i]).equals(s)) return list[i];
-            return 0;
+            if (s.length() != 4 && s.length() != 5) return 0;
+            int from = square(s.charAt(0), s.charAt(1));
+            int to   = square(s.charAt(2), s.charAt(3));
+            if (from < 0 || to < 0) return 0;
+
+            int mover = PositionFactory.pieceAt(pos, from);
+            if (mover < 0) return 0;
+            int type = mover % 6;
+
+            int promo = 0, flags = 0;
+            if (s.length() == 5) {
+                promo = "nbrq".indexOf(s.charAt(4));
+                if (promo < 0) return 0;
+                flags = 1;
+            } else if (type == 5 && Math.abs(to - from) == 2) {
+                flags = 3;                                   // castling: the king moves two files
+            } else if (type == 0 && ((from ^ to) & 7) != 0 && PositionFactory.pieceAt(pos, to) < 0) {
+                flags = 2;                                   // en passant: a diagonal pawn move onto an empty square
+            }
+
+            int mv = to | (from << 6) | (promo << 12) | (flags << 14) | (mover << 16);
+            return mg.isPseudoLegal(pos, mv) ? mv : 0;
+        }
+
+        private static int square(char file, char rank) {
+            if (file < 'a' || file > 'h' || rank < '1' || rank > '8') return -1;
+            return (rank - '1') * 8 + (file - 'a');
         }
 
         private static String sq(int s) {
@@ -321,7 +462,7 @@ public final class UciHandlerImpl implements UciHandler {
         }
     }
 
-    private static final class UciScore {
+    static final class UciScore {
         static String format(int cp, boolean mate) {
             return mate
                     ? "mate " + (cp > 0 ? (32000 - cp + 1) / 2
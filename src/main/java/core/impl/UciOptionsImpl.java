@@ -1,8 +1,10 @@
 package core.impl;
 
+import core.constants.Tunables;
 import core.contracts.Search;
 import core.contracts.TranspositionTable;
 import core.contracts.UciOptions;
+import core.contracts.UciOutput;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -16,21 +18,40 @@ public class UciOptionsImpl implements UciOptions {
     private Search search;
     private final TranspositionTable transpositionTable;
 
-    private record UciOption(String type, String defaultValue, String min, String max, Consumer<String> onSet) {
-        void print(String name) {
-            System.out.print("option name " + name + " type " + type);
-            if (defaultValue != null) System.out.print(" default " + defaultValue);
-            if (min != null) System.out.print(" min " + min);
-            if (max != null) System.out.print(" max " + max);
-            System.out.println();
+    private record UciOption(String type, String defaultValue, String min, String max, Consumer<String> onSet, boolean listed) {
+        UciOption(String type, String defaultValue, String min, String max, Consumer<String> onSet) {
+            this(type, defaultValue, min, max, onSet, true);
+        }
+
+        void print(String name, UciOutput out) {
+            StringBuilder sb = new StringBuilder("option name ").append(name).append(" type ").append(type);
+            if (defaultValue != null) sb.append(" default ").append(defaultValue);
+            if (min != null) sb.append(" min ").append(min);
+            if (max != null) sb.append(" max ").append(max);
+            out.println(sb.toString());
         }
     }
 
     private final Map<String, UciOption> options = new LinkedHashMap<>();
+    /** values accepted by setoption, by option name */
+    private final Map<String, String> values = new LinkedHashMap<>();
+
+    /** false when other engines share the process: the tunables would be theirs too */
+    private final boolean tunables;
 
     public UciOptionsImpl(Search search, TranspositionTable transpositionTable) {
+        this(search, transpositionTable, true);
+    }
+
+    /**
+     * @param tunables Whether the {@link Tunables} search parameters are offered.
+     *                 They are process-wide, so a host running several engines
+     *                 in one JVM must leave them out.
+     */
+    public UciOptionsImpl(Search search, TranspositionTable transpositionTable, boolean tunables) {
         this.search = search;
         this.transpositionTable = transpositionTable;
+        this.tunables = tunables;
         initializeOptions();
     }
 
@@ -46,6 +67,8 @@ public class UciOptionsImpl implements UciOptions {
                 value -> this.search.setThreads(Integer.parseInt(value))));
         options.put("Clear Hash", new UciOption("button", null, null, null,
                 value -> this.transpositionTable.clear()));
+        options.put("Ponder", new UciOption("check", "false", null, null,
+                v -> {}));
         options.put("MultiPV",
                 new UciOption("spin", "1",       // default 1 line
                         "1", "8",
@@ -53,17 +76,32 @@ public class UciOptionsImpl implements UciOptions {
         options.put("Minimal",
                 new UciOption("check", "false", null, null,
                         v -> {}));
+        // Milliseconds of throw-away search run once, at the first isready/ucinewgame.
+        options.put("Warmup", new UciOption("spin", "0", "0", "10000", v -> {
+            int ms = Integer.parseInt(v);
+            if (ms < 0 || ms > 10000) throw new IllegalArgumentException("Warmup must be in [0, 10000]");
+        }));
+
+        // Search parameters for SPSA: always settable, listed only under -Dhelios.tune=true.
+        if (!tunables) return;
+        for (Tunables.Param p : Tunables.PARAMS) {
+            options.put(p.name(), new UciOption("spin", String.valueOf(p.defaultValue()),
+                    String.valueOf(p.min()), String.valueOf(p.max()),
+                    v -> Tunables.set(p.name(), Integer.parseInt(v)), Tunables.LISTED));
+        }
     }
 
     public String getOptionValue(String name) {
+        String v = values.get(name);
+        if (v != null) return v;
         UciOption o = options.get(name);
-        return o != null ? o.defaultValue /* or cached current value */ : null;
+        return o != null ? o.defaultValue : null;
     }
 
     public void attachSearch(Search s) { this.search = s; }
 
     @Override
-    public void setOption(String line) {
+    public void setOption(String line, UciOutput out) {
         try {
             String[] parts = line.split(" value ");
             String namePart = parts[0].replace("setoption name ", "").trim();
@@ -74,18 +112,24 @@ public class UciOptionsImpl implements UciOptions {
                 if (option.onSet != null) {
                     option.onSet.accept(valuePart);
                 }
+                values.put(namePart, valuePart);
+            } else if (Tunables.contains(namePart)) {
+                out.println("info string " + namePart + " is shared by every session in this process;"
+                        + " set it with -Dhelios." + namePart + " when starting it");
             } else {
-                System.out.println("info string Unknown option: " + namePart);
+                out.println("info string Unknown option: " + namePart);
             }
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            out.println("info string Error setting option: " + e.getMessage());
         } catch (Exception e) {
-            System.out.println("info string Error setting option: " + line);
+            out.println("info string Error setting option: " + line);
         }
     }
 
     @Override
-    public void printOptions() {
+    public void printOptions(UciOutput out) {
         for (Map.Entry<String, UciOption> entry : options.entrySet()) {
-            entry.getValue().print(entry.getKey());
+            if (entry.getValue().listed()) entry.getValue().print(entry.getKey(), out);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+package core.impl;
+
+import core.contracts.UciOutput;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link UciOutput} backed by one writer thread.
+ *
+ * <p>Producers only enqueue: a {@link #println} line goes onto an unbounded
+ * queue, an {@link #info} line replaces whatever progress line is still
+ * waiting in a single slot. A {@link #println} first moves that waiting line
+ * onto the queue, so it is written ahead of every line handed over after it.
+ * The writer drains the queue into a buffered stream and flushes when the
+ * queue runs dry or after a line the GUI waits for, so a burst of output
+ * costs one system call instead of one per line.
+ * It writes the waiting progress line once {@link #INFO_INTERVAL_NS} has
+ * passed since the previous one, which caps shallow iterations at a few dozen
+ * {@code info} lines per second however fast the search reports them.</p>
+ */
+public final class UciOutputImpl implements UciOutput {
+
+    /** Minimum spacing of two search progress lines. */
+    static final long INFO_INTERVAL_NS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    /* identity sentinels on the queue */
+    private static final String WAKE  = new String("wake");
+    private static final String CLOSE = new String("close");
+
+    private final Writer out;
+    private final LinkedBlockingQueue<String> queue = new LinkedBlockingQueue<>();
+    private final AtomicReference<String> pendingInfo = new AtomicReference<>();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    /* writer thread only */
+    private long lastInfoNs = System.nanoTime() - INFO_INTERVAL_NS;
+
+    public UciOutputImpl(OutputStream stream) {
+        this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 1 << 16);
+        this.writer = new Thread(this::drain, "uci-output");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void println(String line) {
+        String info = pendingInfo.getAndSet(null);   // handed over first, so it keeps its place
+        if (info != null) queue.offer(info);
+        queue.offer(line);
+    }
+
+    @Override
+    public void info(String line) {
+        if (pendingInfo.getAndSet(line) == null) queue.offer(WAKE);   // the writer may be parked on take()
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        queue.offer(CLOSE);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                String line;
+                if (pendingInfo.get() == null) {
+                    line = queue.take();
+                } else {
+                    long wait = lastInfoNs + INFO_INTERVAL_NS - System.nanoTime();
+                    line = queue.poll(Math.max(0, wait), TimeUnit.NANOSECONDS);
+                }
+
+                if (line == null) {                 // the pending progress line is due
+                    writePendingInfo();
+                } else if (line == CLOSE) {
+                    writePendingInfo();
+                    out.flush();
+                    return;
+                } else if (line != WAKE) {
+                    out.write(line);
+                    out.write('\n');
+                    if (isFlushPoint(line)) {
+                        out.flush();
+                        continue;
+                    }
+                }
+                if (queue.isEmpty()) out.flush();
+            }
+        } catch (IOException e) {
+            // the GUI closed its end of the pipe; nothing left to talk to
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writePendingInfo() throws IOException {
+        String info = pendingInfo.getAndSet(null);
+        if (info == null) return;
+        out.write(info);
+        out.write('\n');
+        lastInfoNs = System.nanoTime();
+    }
+
+    private static boolean isFlushPoint(String line) {
+        return line.startsWith("bestmove") || line.equals("readyok") || line.equals("uciok");
+    }
+}
@@ -0,0 +1,168 @@
+package core.impl;
+
+import core.contracts.MoveGenerator;
+import core.contracts.PositionFactory;
+import core.contracts.Search;
+import core.contracts.TranspositionTable;
+import core.contracts.WorkerPool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.InetAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hosts many independent UCI sessions in one JVM.
+ *
+ * <p>Every connection gets an engine of its own: {@link SearchImpl},
+ * {@link WorkerPoolImpl}, {@link TranspositionTableImpl}, options and game
+ * state, as a separate process would have (with the one exception below).
+ * What the sessions share is
+ * everything that is static and read-only after class initialisation — the
+ * NNUE weights, the slider attack tables, Zobrist keys — and the JIT's
+ * compiled code, so the second and later sessions start warm and cost little
+ * more than their TT.</p>
+ *
+ * <p>The protocol loop of a session runs on a virtual thread: a session
+ * waiting for its GUI costs no platform thread, only its search workers
+ * do. Sessions connect over a loopback TCP port or a Unix domain socket.</p>
+ *
+ * <p>One difference from separate processes remains: the {@link
+ * core.constants.Tunables} search parameters are JIT constants of the whole
+ * JVM. Sessions therefore neither list nor accept them; they are set for all
+ * sessions at once with {@code -Dhelios.<name>=<value>} on the server.</p>
+ */
+public final class UciServer implements AutoCloseable {
+
+    private static final int SESSION_HASH_MB = 64;
+
+    private final ServerSocketChannel server;
+    private final Path socketFile;
+    private final PositionFactory pf = new PositionFactoryImpl();
+    private final MoveGenerator mg = new MoveGeneratorImpl();
+    private final Thread.Builder sessionThreads = Thread.ofVirtual().name("uci-session-", 1);
+    private final AtomicInteger live = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * @param where A port number, bound on the loopback interface only (0 picks
+     *              a free port), or the path of a Unix domain socket to create.
+     *              Only a stale socket may already be at that path.
+     */
+    public UciServer(String where) throws IOException {
+        if (where.matches("\\d+")) {
+            this.socketFile = null;
+            this.server = ServerSocketChannel.open(StandardProtocolFamily.INET);
+            this.server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(where)));
+        } else {
+            this.socketFile = Path.of(where);
+            if (Files.isRegularFile(socketFile) || Files.isDirectory(socketFile))
+                throw new FileAlreadyExistsException(where, null, "not a socket, refusing to replace it");
+            Files.deleteIfExists(socketFile);           // a socket left behind by a server that was killed
+            this.server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            this.server.bind(UnixDomainSocketAddress.of(socketFile));
+        }
+    }
+
+    public SocketAddress localAddress() throws IOException {
+        return server.getLocalAddress();
+    }
+
+    /** Number of sessions currently connected. */
+    public int sessions() {
+        return live.get();
+    }
+
+    /** Accepts connections until {@link #close} is called. */
+    public void serve() throws IOException {
+        try {
+            while (true) {
+                SocketChannel ch = server.accept();
+                live.incrementAndGet();
+                sessionThreads.start(() -> session(ch));
+            }
+        } catch (AsynchronousCloseException e) {
+            // closed: stop accepting, running sessions carry on until their GUI quits
+        }
+    }
+
+    /** One connection's engine; the tunable search parameters are not among its options. */
+    private void session(SocketChannel ch) {
+        TranspositionTable tt = new TranspositionTableImpl(SESSION_HASH_MB);
+        WorkerPool pool = new WorkerPoolImpl(1, (isMain, p) -> new SearchWorkerImpl(isMain, (WorkerPoolImpl) p));
+        UciOptionsImpl opts = new UciOptionsImpl(null, tt, false);
+        try (ch; Search search = new SearchImpl(pf, mg, pool, new TimeManagerImpl())) {
+            search.setTranspositionTable(tt);
+            opts.attachSearch(search);
+            new UciHandlerImpl(search, pf, opts, mg, input(ch), output(ch)).runLoop();
+        } catch (IOException e) {
+            // the client vanished while the session was closing
+        } finally {
+            live.decrementAndGet();
+        }
+    }
+
+    /** {@link #close} for shutdown hooks: safe to call more than once, from any thread. */
+    public void shutdown() {
+        try {
+            close();
+        } catch (IOException ignored) {
+            // exiting anyway
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed.compareAndSet(false, true)) return;
+        server.close();
+        if (socketFile != null) Files.deleteIfExists(socketFile);
+    }
+
+    /*
+     * Plain stream views of the channel. Channels.newInputStream would do, but
+     * its streams lock the channel's blocking lock for every call, so a read
+     * waiting for the next command would hold up the bestmove being written.
+     * The channel itself reads and writes under separate locks.
+     */
+
+    private static InputStream input(SocketChannel ch) {
+        return new InputStream() {
+            @Override public int read() throws IOException {
+                byte[] b = new byte[1];
+                return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+            }
+
+            @Override public int read(byte[] b, int off, int len) throws IOException {
+                if (len == 0) return 0;
+                int n = ch.read(ByteBuffer.wrap(b, off, len));
+                return n < 0 ? -1 : n;
+            }
+        };
+    }
+
+    private static OutputStream output(SocketChannel ch) {
+        return new OutputStream() {
+            @Override public void write(int b) throws IOException {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override public void write(byte[] b, int off, int len) throws IOException {
+                ByteBuffer buf = ByteBuffer.wrap(b, off, len);
+                while (buf.hasRemaining()) ch.write(buf);
+            }
+        };
+    }
+}
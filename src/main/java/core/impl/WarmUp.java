@@ -0,0 +1,44 @@
+package core.impl;
+
+import core.constants.CoreConstants;
+import core.contracts.MoveGenerator;
+import core.contracts.PositionFactory;
+import core.contracts.Search;
+import core.contracts.TranspositionTable;
+import core.contracts.WorkerPool;
+import core.records.SearchSpec;
+
+/**
+ * Short throw-away searches that get the hot paths (pvs, move generation,
+ * NNUE updates) compiled by C2 before the first real {@code go}.
+ *
+ * <p>Compiled code belongs to the classes, not to instances, so the searches
+ * run on a private pool with a scratch TT: the engine's own hash table and
+ * move-ordering statistics are left exactly as they were.</p>
+ */
+public final class WarmUp {
+
+    private WarmUp() {}
+
+    /** One search per bench position, so several distinct games are seen. */
+    private static final long SLICE_MS = 200;
+    private static final int SCRATCH_HASH_MB = 8;
+
+    /** Searches the bench positions in turn until {@code budgetMs} has passed. */
+    public static void run(PositionFactory pf, MoveGenerator mg, long budgetMs) {
+        long end = System.nanoTime() + budgetMs * 1_000_000L;
+        TranspositionTable tt = new TranspositionTableImpl(SCRATCH_HASH_MB);
+        WorkerPool pool = new WorkerPoolImpl(1, (isMain, p) -> new SearchWorkerImpl(isMain, (WorkerPoolImpl) p));
+        try (Search search = new SearchImpl(pf, mg, pool, new TimeManagerImpl())) {
+            search.setTranspositionTable(tt);
+            for (int i = 0; ; i = (i + 1) % UciHandlerImpl.BENCH_FENS.size()) {
+                long leftMs = (end - System.nanoTime()) / 1_000_000L;
+                if (leftMs <= 0) break;
+                // movetime has the time manager's overhead taken off, so ask for a little more
+                long slice = Math.min(leftMs, SLICE_MS) + CoreConstants.TM_OVERHEAD_MS;
+                SearchSpec spec = new SearchSpec.Builder().moveTimeMs(slice).build();
+                search.search(pf.fromFen(UciHandlerImpl.BENCH_FENS.get(i)), spec, null);
+            }
+        }
+    }
+}
@@ -28,8 +28,17 @@ public final class WorkerPoolImpl implements WorkerPool {
     private volatile long softTimeMs;
     private volatile long hardTimeMs;
     private volatile long searchStartMs;
+    private volatile long nodeLimit = Long.MAX_VALUE;
     private CompletableFuture<SearchResult> searchFuture;
 
+    /* ── pondering ── */
+    private final Object ponderLock = new Object();
+    private volatile boolean pondering;
+    private volatile boolean stopOnPonderHit;
+    private SearchSpec currentSpec;
+    private TimeManager currentTm;
+    private long[] currentRoot;
+
     public WorkerPoolImpl(int threads, SearchWorkerFactory f) {
         this.factory = f;
         this.parallelism = threads;
@@ -70,6 +79,12 @@ public final class WorkerPoolImpl implements WorkerPool {
         // Setup for the new search
         this.stopFlag.set(false);
         this.totalNodes.set(0);
+        this.nodeLimit = spec.nodes() > 0 ? spec.nodes() : Long.MAX_VALUE;
+        this.currentSpec = spec;
+        this.currentTm = tm;
+        this.currentRoot = root;
+        this.stopOnPonderHit = false;
+        this.pondering = spec.ponder();
         deriveTimeLimits(spec, tm, root);
         this.searchStartMs = System.currentTimeMillis();
 
@@ -100,8 +115,13 @@ public final class WorkerPoolImpl implements WorkerPool {
         }
     }
 
-    // Called by main worker when search is fully complete
-    void finalizeSearch(SearchResult mainResult) {
+    /**
+     * Called by the main worker when the search is fully complete. Returns the
+     * completion of the search future, which the main worker runs as soon as it
+     * is idle: the caller's callbacks then run directly on that thread, with no
+     * hand-off to another executor.
+     */
+    Runnable finalizeSearch(SearchResult mainResult) {
         long allNodes = 0;
         for (SearchWorkerImpl w : workers) {
             allNodes += w.getNodes();
@@ -114,9 +134,10 @@ public final class WorkerPoolImpl implements WorkerPool {
                 mainResult.timeMs()
         );
 
-        if (searchFuture != null && !searchFuture.isDone()) {
-            searchFuture.complete(finalResult);
-        }
+        CompletableFuture<SearchResult> future = searchFuture;
+        return () -> {
+            if (future != null) future.complete(finalResult);
+        };
     }
 
     boolean shouldStop(long searchStartMs, boolean mateFound) {
@@ -127,6 +148,14 @@ public final class WorkerPoolImpl implements WorkerPool {
         return elapsed >= hardTimeMs;
     }
 
+    /**
+     * "go nodes": polled by the main worker with the time limit, so all workers
+     * together may overshoot the budget by up to one polling interval each.
+     */
+    boolean nodeLimitReached() {
+        return nodeLimit != Long.MAX_VALUE && totalNodes() >= nodeLimit;
+    }
+
     void reportNodeCount(long nodes) {
         // This method can be used if more frequent updates are needed.
     }
@@ -139,8 +168,62 @@ public final class WorkerPoolImpl implements WorkerPool {
         return total;
     }
 
-    @Override public void stopSearch() { stopFlag.set(true); }
+    @Override public SearchStats collectStats() {
+        SearchStats sum = new SearchStats();
+        for (SearchWorker w : workers) sum.add(w.getStats());
+        return sum;
+    }
+
+    @Override public void stopSearch() {
+        stopFlag.set(true);
+        if (pondering) {
+            synchronized (ponderLock) { ponderLock.notifyAll(); }
+        }
+    }
     boolean isStopped() { return stopFlag.get(); }
+
+    /**
+     * Switches a ponder search to the clock. The start time is left untouched so the
+     * time already spent pondering counts towards the newly derived limits.
+     */
+    @Override
+    public void ponderHit() {
+        synchronized (ponderLock) {
+            if (!pondering) return;
+            deriveTimeLimits(currentSpec.withoutPonder(), currentTm, currentRoot);
+            pondering = false;
+            ponderLock.notifyAll();
+        }
+        if (stopOnPonderHit) stopSearch();
+    }
+
+    boolean isPondering() { return pondering; }
+
+    /** The main worker would have stopped, but UCI forbids a bestmove before ponderhit/stop. */
+    void requestStopOnPonderHit() {
+        stopOnPonderHit = true;
+        if (!pondering) stopSearch();   // ponderhit raced us
+    }
+
+    /** Blocks the main worker while the GUI has not yet answered a ponder search. */
+    void waitWhilePondering() {
+        synchronized (ponderLock) {
+            while (pondering && !stopFlag.get()) {
+                try {
+                    ponderLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+    @Override
+    public synchronized void clearHistory() {
+        workers.get(0).waitWorkerFinished();   // the main worker only finishes after its helpers
+        for (SearchWorkerImpl w : workers) w.clearHistory();
+    }
+
     @Override public AtomicBoolean getStopFlag() { return stopFlag; }
 
     @Override
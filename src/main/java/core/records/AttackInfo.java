@@ -0,0 +1,25 @@
+package core.records;
+
+/**
+ * Attack information of one node, computed once by
+ * {@link core.contracts.MoveGenerator#computeAttackInfo} and shared by the
+ * in-check test, legality filtering, SEE shortcuts and pruning decisions.
+ *
+ * <p>Mutable on purpose: the search keeps one instance per ply and refills it
+ * at every node, so nothing is allocated on the hot path.</p>
+ */
+public final class AttackInfo {
+    /** Enemy pieces giving check to the side to move. */
+    public long checkers;
+    /** Pieces of the side to move that are absolutely pinned to their king. */
+    public long pinned;
+    /**
+     * Every square the opponent attacks, computed with the side to move's king lifted off the
+     * board so that a king stepping back along a checking ray is seen as attacked.
+     */
+    public long threats;
+
+    public boolean inCheck() {
+        return checkers != 0;
+    }
+}
@@ -31,6 +31,15 @@ public record SearchSpec(
         boolean ponder,
         List<Long> history
 ) {
+    /**
+     * Returns a copy of this spec with the {@code ponder} flag cleared. Used on
+     * {@code ponderhit} to derive the clocked time allocation for the same search.
+     */
+    public SearchSpec withoutPonder() {
+        return new SearchSpec(depth, nodes, moveTimeMs, wTimeMs, wIncMs, bTimeMs, bIncMs,
+                movesToGo, infinite, false, history);
+    }
+
     /**
      * A builder for creating {@link SearchSpec} instances. This provides a fluent API
      * for setting search parameters and is more readable than a large constructor.
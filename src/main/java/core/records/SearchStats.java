@@ -0,0 +1,113 @@
+package core.records;
+
+import static core.constants.CoreConstants.MAX_PLY;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Counters describing where a search spent its nodes, for comparing builds.
+ *
+ * <p>Collection is opt-in: the search only touches these counters behind
+ * {@code if (SearchStats.ENABLED)}, and as that flag is a {@code static final}
+ * the JIT removes every such branch when the engine runs without
+ * {@code -Dhelios.stats=true}. Mutable on purpose, like {@link AttackInfo}:
+ * each worker owns one instance and resets it at the start of a search.</p>
+ */
+public final class SearchStats {
+
+    /** True when the engine runs with {@code -Dhelios.stats=true}. */
+    public static final boolean ENABLED = Boolean.getBoolean("helios.stats");
+
+    /* nodes that searched moves, classified by their result */
+    public long pvNodes;        // exact score inside the window
+    public long cutNodes;       // failed high
+    public long allNodes;       // failed low
+    public long qNodes;
+
+    public long cutoffs;
+    public long firstMoveCutoffs;
+
+    public long ttProbes;       // main-search probes at ply > 0
+    public long ttCutoffs;
+
+    public long nullMovePrunes;
+    public long rfpPrunes;
+    public long probCutPrunes;
+    public long seePrunes;
+    public long lmpPrunes;
+    public long futilityPrunes;
+
+    public long lmrSearches;    // reduced zero-window searches
+    public long lmrResearches;  // ... that had to be repeated at full depth
+
+    /** Nodes after each completed iteration, cumulative; index = depth. */
+    public final long[] iterationNodes = new long[MAX_PLY + 1];
+    public int iterations;
+
+    public void clear() {
+        pvNodes = cutNodes = allNodes = qNodes = 0;
+        cutoffs = firstMoveCutoffs = 0;
+        ttProbes = ttCutoffs = 0;
+        nullMovePrunes = rfpPrunes = probCutPrunes = seePrunes = lmpPrunes = futilityPrunes = 0;
+        lmrSearches = lmrResearches = 0;
+        Arrays.fill(iterationNodes, 0);
+        iterations = 0;
+    }
+
+    /**
+     * Adds {@code o} to this. Iteration node counts are summed depth by depth,
+     * a search that stopped earlier counting with its final total.
+     */
+    public void add(SearchStats o) {
+        pvNodes += o.pvNodes;
+        cutNodes += o.cutNodes;
+        allNodes += o.allNodes;
+        qNodes += o.qNodes;
+        cutoffs += o.cutoffs;
+        firstMoveCutoffs += o.firstMoveCutoffs;
+        ttProbes += o.ttProbes;
+        ttCutoffs += o.ttCutoffs;
+        nullMovePrunes += o.nullMovePrunes;
+        rfpPrunes += o.rfpPrunes;
+        probCutPrunes += o.probCutPrunes;
+        seePrunes += o.seePrunes;
+        lmpPrunes += o.lmpPrunes;
+        futilityPrunes += o.futilityPrunes;
+        lmrSearches += o.lmrSearches;
+        lmrResearches += o.lmrResearches;
+        for (int d = 0; d <= MAX_PLY; d++) iterationNodes[d] += o.iterationNodes[Math.min(d, o.iterations)];
+        iterations = Math.max(iterations, o.iterations);
+    }
+
+    /**
+     * The report, one line per group, without any UCI prefix. The effective
+     * branching factor of iteration d is nodes(d) / nodes(d-1), where nodes(d)
+     * is the work done by iteration d alone.
+     */
+    public List<String> report() {
+        List<String> out = new ArrayList<>();
+        out.add(String.format("nodes pv %d cut %d all %d qsearch %d", pvNodes, cutNodes, allNodes, qNodes));
+        out.add(String.format("cutoffs %d first-move %s tt-probes %d tt-cutoffs %s",
+                cutoffs, pct(firstMoveCutoffs, cutoffs), ttProbes, pct(ttCutoffs, ttProbes)));
+        out.add(String.format("prunes null %d rfp %d probcut %d see %d lmp %d futility %d",
+                nullMovePrunes, rfpPrunes, probCutPrunes, seePrunes, lmpPrunes, futilityPrunes));
+        out.add(String.format("lmr searches %d re-searches %s", lmrSearches, pct(lmrResearches, lmrSearches)));
+
+        StringBuilder ebf = new StringBuilder("ebf");
+        long prev = 0;
+        for (int d = 1; d <= iterations; d++) {
+            long work = iterationNodes[d] - iterationNodes[d - 1];
+            ebf.append(' ').append(d).append(':')
+                    .append(prev > 0 ? String.format("%.2f", (double) work / prev) : "-");
+            prev = work;
+        }
+        out.add(ebf.toString());
+        return out;
+    }
+
+    private static String pct(long part, long whole) {
+        return whole > 0 ? String.format("%.1f%%", 100.0 * part / whole) : "-";
+    }
+}
@@ -3,8 +3,22 @@ package main;
 
 import core.contracts.*;
 import core.impl.*;
+import core.records.SearchResult;
+import core.records.SearchSpec;
+import core.records.SearchStats;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Wire everything together and run the UCI loop.
@@ -13,13 +27,56 @@ import java.util.List;
 public final class Main {
 
     public static void main(String[] args) {
-        System.out.println(
-                "JDK=" + System.getProperty("java.runtime.version") +
-                        " VM=" + System.getProperty("java.vm.name") + " " + System.getProperty("java.vm.version"));
-
         if (args.length > 0 && "bench".equalsIgnoreCase(args[0])) {
-            int depth = (args.length > 3) ? Integer.parseInt(args[3]) : 4;
-            runPerftBench(depth);
+            int hashMb  = (args.length > 1) ? Integer.parseInt(args[1]) : 16;
+            int threads = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+            int depth   = (args.length > 3) ? Integer.parseInt(args[3]) : 4;
+            runPerftBench(hashMb, threads, depth);
+            return;
+        }
+        if (args.length > 0 && "searchbench".equalsIgnoreCase(args[0])) {
+            int depth  = (args.length > 1) ? Integer.parseInt(args[1]) : 11;
+            int hashMb = (args.length > 2) ? Integer.parseInt(args[2]) : 16;
+            runSearchBench(depth, hashMb);
+            return;
+        }
+        if (args.length > 0 && "npscurve".equalsIgnoreCase(args[0])) {
+            long totalMs  = (args.length > 1) ? Long.parseLong(args[1]) : 2000;
+            long warmupMs = (args.length > 2) ? Long.parseLong(args[2]) : 0;
+            long sampleMs = (args.length > 3) ? Long.parseLong(args[3]) : 100;
+            runNpsCurve(totalMs, warmupMs, sampleMs);
+            return;
+        }
+
+        if (args.length > 1 && "analyze".equalsIgnoreCase(args[0])) {
+            Path epd    = Path.of(args[1]);
+            int threads = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+            long nodes  = (args.length > 3) ? Long.parseLong(args[3]) : 100_000;
+            int hashMb  = (args.length > 4) ? Integer.parseInt(args[4]) : 16;
+            Path out    = (args.length > 5) ? Path.of(args[5]) : Path.of(args[1] + ".analysis");
+            runAnalyze(epd, threads, nodes, hashMb, out);
+            return;
+        }
+        if (args.length > 1 && "analyzescale".equalsIgnoreCase(args[0])) {
+            Path epd       = Path.of(args[1]);
+            int maxThreads = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+            long nodes     = (args.length > 3) ? Long.parseLong(args[3]) : 100_000;
+            int hashMb     = (args.length > 4) ? Integer.parseInt(args[4]) : 16;
+            runAnalyzeScaling(epd, maxThreads, nodes, hashMb);
+            return;
+        }
+        if (args.length > 1 && "datagen".equalsIgnoreCase(args[0])) {
+            Path out        = Path.of(args[1]);
+            long games      = (args.length > 2) ? Long.parseLong(args[2]) : 1000;
+            int threads     = (args.length > 3) ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+            long nodes      = (args.length > 4) ? Long.parseLong(args[4]) : 5000;
+            int randomPlies = (args.length > 5) ? Integer.parseInt(args[5]) : 8;
+            int hashMb      = (args.length > 6) ? Integer.parseInt(args[6]) : 8;
+            runDataGen(out, games, threads, nodes, randomPlies, hashMb);
+            return;
+        }
+        if (args.length > 1 && "server".equalsIgnoreCase(args[0])) {
+            runServer(args[1]);
             return;
         }
 
@@ -52,22 +109,24 @@ public final class Main {
         }
     }
 
-    // The perft bench logic remains unchanged as it's single-threaded.
-    private static void runPerftBench(int depth) {
+    /** bench [hashMb] [threads] [depth] – perft over the bench positions. */
+    private static void runPerftBench(int hashMb, int threads, int depth) {
         PositionFactory pf = new PositionFactoryImpl();
         MoveGenerator mg = new MoveGeneratorImpl();
         List<String> FENS = core.impl.UciHandlerImpl.BENCH_FENS;
 
         long totalNodes = 0, totalTimeMs = 0;
 
-        for (String fen : FENS) {
-            long[] root = pf.fromFen(fen);
-            long t0 = System.nanoTime();
-            long nodes = perft(root, depth, 0, pf, mg);
-            long ms = (System.nanoTime() - t0) / 1_000_000;
+        try (Perft perft = new PerftImpl(pf, mg, hashMb, threads)) {
+            for (String fen : FENS) {
+                long[] root = pf.fromFen(fen);
+                long t0 = System.nanoTime();
+                long nodes = perft.perft(root, depth);
+                long ms = (System.nanoTime() - t0) / 1_000_000;
 
-            totalNodes += nodes;
-            totalTimeMs += ms;
+                totalNodes += nodes;
+                totalTimeMs += ms;
+            }
         }
 
         long totalNps = totalTimeMs > 0 ? (1000L * totalNodes) / totalTimeMs : 0;
@@ -76,25 +135,197 @@ public final class Main {
         System.out.println("benchok");
     }
 
-    private static final int MAX_PLY = 64;
-    private static final int LIST_CAP = 256;
-    private static final int[][] MOVES = new int[MAX_PLY][LIST_CAP];
+    /**
+     * searchbench [depth] [hashMb] – fixed-depth single-threaded search of the bench positions.
+     * The node total is deterministic, so it measures nodes-to-depth (move ordering and pruning);
+     * the nps line measures raw speed. With {@code -Dhelios.stats=true} the
+     * statistics summed over all positions are printed as well.
+     */
+    private static void runSearchBench(int depth, int hashMb) {
+        PositionFactory pf = new PositionFactoryImpl();
+        MoveGenerator mg = new MoveGeneratorImpl();
+        TranspositionTable tt = new TranspositionTableImpl(hashMb);
+        WorkerPool pool = new WorkerPoolImpl(1, (isMain, p) -> new SearchWorkerImpl(isMain, (WorkerPoolImpl) p));
 
-    private static long perft(long[] bb, int depth, int ply, PositionFactory pf, MoveGenerator mg) {
-        if (depth == 0) return 1;
+        long totalNodes = 0;
+        SearchStats stats = new SearchStats();
+        long t0 = System.nanoTime();
+        try (Search search = new SearchImpl(pf, mg, pool, new TimeManagerImpl())) {
+            search.setTranspositionTable(tt);
+            for (String fen : UciHandlerImpl.BENCH_FENS) {
+                tt.clear();
+                SearchSpec spec = new SearchSpec.Builder().depth(depth).infinite(true).build();
+                totalNodes += search.search(pf.fromFen(fen), spec, null).nodes();
+                if (SearchStats.ENABLED) stats.add(search.getStats());
+            }
+        }
+        long ms = (System.nanoTime() - t0) / 1_000_000;
 
-        int[] list = MOVES[ply];
-        boolean white = PositionFactory.whiteToMove(bb[PositionFactory.META]);
-        int nMoves = mg.kingAttacked(bb, white)
-                ? mg.generateEvasions(bb, list, 0)
-                : mg.generateQuiets(bb, list, mg.generateCaptures(bb, list, 0));
+        if (SearchStats.ENABLED) stats.report().forEach(System.out::println);
+        System.out.printf("Nodes searched: %d%n", totalNodes);
+        System.out.printf("nps: %d%n", ms > 0 ? (1000L * totalNodes) / ms : 0);
+        System.out.println("benchok");
+    }
 
-        long nodes = 0;
-        for (int i = 0; i < nMoves; i++) {
-            if (!pf.makeMoveInPlace(bb, list[i], mg)) continue;
-            nodes += perft(bb, depth - 1, ply + 1, pf, mg);
-            pf.undoMoveInPlace(bb);
+    /**
+     * npscurve [totalMs] [warmupMs] [sampleMs] – one single-threaded movetime search of the
+     * first bench position, sampled every {@code sampleMs}. Each line is the time since JVM
+     * start and the nps over the last sample, so the climb while the JIT compiles the search
+     * shows up directly; run it once with and once without {@code warmupMs} to see what the
+     * "Warmup" option buys.
+     */
+    private static void runNpsCurve(long totalMs, long warmupMs, long sampleMs) {
+        PositionFactory pf = new PositionFactoryImpl();
+        MoveGenerator mg = new MoveGeneratorImpl();
+        long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+        if (warmupMs > 0) {
+            WarmUp.run(pf, mg, warmupMs);
+            System.out.printf("warmup %d ms done at %d ms%n", warmupMs, System.currentTimeMillis() - jvmStart);
+        }
+
+        TranspositionTable tt = new TranspositionTableImpl(16);
+        WorkerPool pool = new WorkerPoolImpl(1, (isMain, p) -> new SearchWorkerImpl(isMain, (WorkerPoolImpl) p));
+        try (Search search = new SearchImpl(pf, mg, pool, new TimeManagerImpl())) {
+            search.setTranspositionTable(tt);
+            SearchSpec spec = new SearchSpec.Builder().moveTimeMs(totalMs).build();
+            CompletableFuture<SearchResult> done =
+                    search.searchAsync(pf.fromFen(UciHandlerImpl.BENCH_FENS.get(0)), spec, null);
+
+            System.out.println("jvm_ms nps");
+            long lastNodes = 0, lastNs = System.nanoTime();
+            while (!done.isDone()) {
+                try {
+                    Thread.sleep(sampleMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                long nodes = pool.totalNodes(), now = System.nanoTime();
+                if (now > lastNs && nodes >= lastNodes)
+                    System.out.printf("%d %d%n", System.currentTimeMillis() - jvmStart,
+                            (nodes - lastNodes) * 1_000_000_000L / (now - lastNs));
+                lastNodes = nodes;
+                lastNs = now;
+            }
+            System.out.printf("Nodes searched: %d%n", done.join().nodes());
+        }
+    }
+
+    /**
+     * analyze epdFile [threads] [nodes] [hashMb] [outFile] – searches every position of the
+     * file to a fixed node budget, one single-threaded search per thread, and writes one
+     * result line per position to {@code outFile} (default {@code epdFile.analysis}) in
+     * input order, tagged with the EPD {@code id}.
+     */
+    private static void runAnalyze(Path epd, int threads, long nodes, int hashMb, Path out) {
+        PositionFactory pf = new PositionFactoryImpl();
+        MoveGenerator mg = new MoveGeneratorImpl();
+        SearchSpec spec = new SearchSpec.Builder().nodes(nodes).build();
+
+        long t0 = System.nanoTime();
+        EpdAnalyzer.Summary sum;
+        try (EpdAnalyzer analyzer = new EpdAnalyzer(pf, mg, threads, hashMb);
+             BufferedReader in = Files.newBufferedReader(epd);
+             BufferedWriter w = Files.newBufferedWriter(out)) {
+            sum = analyzer.analyze(in, spec, r -> writeLine(w, r.line()));
+        } catch (IOException e) {
+            System.err.println("analyze: " + e);
+            return;
+        }
+        long ms = Math.max(1, (System.nanoTime() - t0) / 1_000_000);
+
+        System.out.printf("Positions: %d (skipped %d) threads %d%n", sum.positions(), sum.skipped(), threads);
+        System.out.printf("Nodes searched: %d%n", sum.nodes());
+        System.out.printf("positions/s: %.1f nps: %d%n", 1000.0 * sum.positions() / ms, 1000L * sum.nodes() / ms);
+        System.out.println("Results: " + out);
+    }
+
+    /**
+     * analyzescale epdFile [maxThreads] [nodes] [hashMb] – runs the batch analysis with
+     * 1, 2, 4, … threads up to {@code maxThreads}, discarding the results, and prints the
+     * positions per second of each run with its speed-up over one thread.
+     */
+    private static void runAnalyzeScaling(Path epd, int maxThreads, long nodes, int hashMb) {
+        PositionFactory pf = new PositionFactoryImpl();
+        MoveGenerator mg = new MoveGeneratorImpl();
+        SearchSpec spec = new SearchSpec.Builder().nodes(nodes).build();
+
+        System.out.println("threads positions/s speedup efficiency");
+        double base = 0;
+        for (int threads = 1; ; threads = Math.min(maxThreads, threads * 2)) {
+            long t0 = System.nanoTime();
+            EpdAnalyzer.Summary sum;
+            try (EpdAnalyzer analyzer = new EpdAnalyzer(pf, mg, threads, hashMb);
+                 BufferedReader in = Files.newBufferedReader(epd)) {
+                sum = analyzer.analyze(in, spec, r -> {});
+            } catch (IOException e) {
+                System.err.println("analyzescale: " + e);
+                return;
+            }
+            double pps = 1e9 * sum.positions() / Math.max(1, System.nanoTime() - t0);
+            if (threads == 1) base = pps;
+            System.out.printf("%d %.1f %.2f %.0f%%%n", threads, pps, pps / base, 100 * pps / base / threads);
+            if (threads >= maxThreads) break;
+        }
+    }
+
+    /**
+     * datagen outFile [games] [threads] [nodes] [randomPlies] [hashMb] – self-play games, one
+     * per thread at a time, appended to {@code outFile} as 32-byte bulletformat records.
+     * Progress is printed every ten seconds, games and positions per second at the end.
+     */
+    private static void runDataGen(Path out, long games, int threads, long nodes, int randomPlies, int hashMb) {
+        PositionFactory pf = new PositionFactoryImpl();
+        MoveGenerator mg = new MoveGeneratorImpl();
+
+        long t0 = System.nanoTime();
+        DataGen.Summary sum;
+        try (DataGen gen = new DataGen(pf, mg, threads, hashMb);
+             FileChannel ch = FileChannel.open(out, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            sum = gen.run(ch, games, nodes, randomPlies, System.nanoTime(), 10_000,
+                    s -> System.out.printf("games %d positions %d%n", s.games(), s.positions()));
+        } catch (IOException e) {
+            System.err.println("datagen: " + e);
+            return;
+        }
+        double secs = Math.max(1, System.nanoTime() - t0) / 1e9;
+
+        System.out.printf("Games: %d (+%d =%d -%d) threads %d%n",
+                sum.games(), sum.whiteWins(), sum.draws(), sum.blackWins(), threads);
+        System.out.printf("Positions: %d (%d bytes)%n", sum.positions(), sum.positions() * DataGen.RECORD_BYTES);
+        System.out.printf("games/s: %.2f positions/s: %.0f%n", sum.games() / secs, sum.positions() / secs);
+    }
+
+    /**
+     * server port|socketPath – hosts one UCI session per connection in this JVM, on a
+     * loopback TCP port or a Unix domain socket, until the process is killed.
+     */
+    private static void runServer(String where) {
+        UciServer server;
+        try {
+            server = new UciServer(where);
+        } catch (IOException e) {
+            System.err.println("server: " + e);
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(server::shutdown));
+        try {
+            System.out.println("Helios UCI server listening on " + server.localAddress());
+            server.serve();
+        } catch (IOException e) {
+            System.err.println("server: " + e);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    private static void writeLine(Writer w, String line) {
+        try {
+            w.write(line);
+            w.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return nodes;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,85 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import core.contracts.PositionFactory;
+import core.impl.DataGen;
+import core.impl.PositionFactoryImpl;
+import core.impl.UciHandlerImpl;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.jupiter.api.*;
+
+/**
+ * The packed records must match bulletformat byte for byte: trainers read
+ * them with a plain struct cast, so a wrong nibble is silently wrong data.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DataGenTest {
+
+    private final PositionFactory pf = new PositionFactoryImpl();
+
+    @Test
+    void startPositionLayout() {
+        ByteBuffer buf = encode("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", 35);
+        DataGen.setResult(buf, 0, true, 1);
+
+        assertEquals(0xFFFF00000000FFFFL, buf.getLong(0));
+        // a1..h1 R N B Q K B N R, then eight white pawns: colour 0, type in the low 3 bits
+        assertEquals(0x00000000_31254213L, buf.getLong(8));
+        // eight black pawns, then a8..h8: colour bit 8
+        assertEquals(0xB9ADCA9B_88888888L, buf.getLong(16));
+        assertEquals(35, buf.getShort(24));
+        assertEquals(1, buf.get(26));
+        assertEquals(4, buf.get(27));               // e1
+        assertEquals(4, buf.get(28));               // e8, mirrored
+    }
+
+    /** A position with black to move is stored as its colour-flipped mirror image with white to move. */
+    @Test
+    void blackToMoveIsStoredMirrored() {
+        for (String fen : UciHandlerImpl.BENCH_FENS.subList(0, 12)) {
+            String mirrored = mirror(fen);
+            boolean white = fen.split(" ")[1].equals("w");
+            ByteBuffer a = encode(fen, -120);
+            ByteBuffer b = encode(mirrored, -120);
+            DataGen.setResult(a, 0, white, 2);
+            DataGen.setResult(b, 0, !white, 0);
+            assertEquals(a, b, fen);
+        }
+    }
+
+    private ByteBuffer encode(String fen, int score) {
+        ByteBuffer buf = ByteBuffer.allocate(DataGen.RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        DataGen.encode(pf.fromFen(fen), score, buf);
+        assertEquals(DataGen.RECORD_BYTES, buf.position());
+        return buf.flip();
+    }
+
+    /** Ranks reversed, colours swapped, side to move swapped. */
+    private static String mirror(String fen) {
+        String[] f = fen.split(" ");
+        String[] ranks = f[0].split("/");
+        StringBuilder board = new StringBuilder();
+        for (int r = ranks.length - 1; r >= 0; r--) {
+            board.append(swapCase(ranks[r]));
+            if (r > 0) board.append('/');
+        }
+        String ep = f[3].equals("-") ? "-" : "" + f[3].charAt(0) + (char) ('1' + '8' - f[3].charAt(1));
+        String castling = f[2].equals("-") ? "-" : sortCastling(swapCase(f[2]));
+        return board + " " + (f[1].equals("w") ? "b" : "w") + " " + castling + " " + ep + " " + f[4] + " " + f[5];
+    }
+
+    private static String sortCastling(String c) {
+        StringBuilder sb = new StringBuilder();
+        for (char ch : "KQkq".toCharArray()) if (c.indexOf(ch) >= 0) sb.append(ch);
+        return sb.toString();
+    }
+
+    private static String swapCase(String s) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : s.toCharArray())
+            sb.append(Character.isUpperCase(c) ? Character.toLowerCase(c) : Character.toUpperCase(c));
+        return sb.toString();
+    }
+}
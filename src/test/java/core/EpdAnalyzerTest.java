@@ -0,0 +1,94 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import core.contracts.*;
+import core.impl.*;
+import core.records.SearchSpec;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.*;
+
+/**
+ * Batch analysis must not depend on how the positions were spread over the
+ * shards: same lines, same order, same ids, whatever the shard count.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EpdAnalyzerTest {
+
+    private static final int POSITIONS = 12;
+    private static final long NODES = 5_000;
+
+    private final PositionFactory pf = new PositionFactoryImpl();
+    private final MoveGenerator mg = new MoveGeneratorImpl();
+
+    @Test
+    void resultsDoNotDependOnShardCount() throws Exception {
+        List<String> one = analyze(1);
+        List<String> three = analyze(3);
+
+        assertEquals(POSITIONS, one.size());
+        for (int i = 0; i < POSITIONS; i++) {
+            String id = i % 2 == 0 ? "pos" + i : String.valueOf(i + 1);
+            assertTrue(one.get(i).startsWith("id " + id + " bestmove "), one.get(i));
+        }
+        assertEquals(one, three);
+    }
+
+    @Test
+    void nodeBudgetStopsTheSearch() {
+        WorkerPool pool = new WorkerPoolImpl(1, (isMain, p) -> new SearchWorkerImpl(isMain, (WorkerPoolImpl) p));
+        try (Search search = new SearchImpl(pf, mg, pool, new TimeManagerImpl())) {
+            search.setTranspositionTable(new TranspositionTableImpl(16));
+            long nodes = search.search(pf.fromFen(UciHandlerImpl.BENCH_FENS.get(0)),
+                    new SearchSpec.Builder().nodes(NODES).build(), null).nodes();
+            // polled every 2048 nodes
+            assertTrue(nodes >= NODES && nodes < NODES + 4096, "nodes " + nodes);
+        }
+    }
+
+    @Test
+    void readErrorStopsTheShards() {
+        String fen = UciHandlerImpl.BENCH_FENS.get(0) + "\n";
+        BufferedReader failing = new BufferedReader(new StringReader(fen.repeat(3))) {
+            int lines;
+            @Override public String readLine() throws IOException {
+                if (++lines > 3) throw new IOException("disk gone");
+                return super.readLine();
+            }
+        };
+        try (EpdAnalyzer analyzer = new EpdAnalyzer(pf, mg, 2, 4)) {
+            IOException e = assertThrows(IOException.class, () ->
+                    analyzer.analyze(failing, new SearchSpec.Builder().nodes(NODES).build(), r -> {}));
+            assertEquals("disk gone", e.getMessage());
+        }
+        assertTrue(Thread.getAllStackTraces().keySet().stream()
+                .noneMatch(t -> t.getName().startsWith("Helios-Analyze-")), "a shard is still waiting for work");
+    }
+
+    /** Every other position carries an EPD id; the rest are plain FENs tagged by index. */
+    private List<String> analyze(int shards) throws Exception {
+        StringBuilder epd = new StringBuilder("# header comment\n\n");
+        for (int i = 0; i < POSITIONS; i++) {
+            String fen = UciHandlerImpl.BENCH_FENS.get(i);
+            if (i % 2 == 0) {
+                String[] f = fen.split(" ");
+                epd.append(String.join(" ", f[0], f[1], f[2], f[3])).append(" id \"pos").append(i).append("\";\n");
+            } else {
+                epd.append(fen).append('\n');
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        try (EpdAnalyzer analyzer = new EpdAnalyzer(pf, mg, shards, 4)) {
+            EpdAnalyzer.Summary sum = analyzer.analyze(new BufferedReader(new StringReader(epd.toString())),
+                    new SearchSpec.Builder().nodes(NODES).build(), r -> lines.add(r.line()));
+            assertEquals(POSITIONS, sum.positions());
+            assertEquals(0, sum.skipped());
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,118 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import core.contracts.MoveGenerator;
+import core.contracts.PositionFactory;
+import core.impl.MoveGeneratorImpl;
+import core.impl.PositionFactoryImpl;
+import core.records.AttackInfo;
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+/**
+ * Cross-checks {@link MoveGenerator#generateLegal} against the reference
+ * definition of legality: pseudo-legal moves that survive
+ * {@link PositionFactory#makeMoveInPlace}'s king-safety probe. Also verifies
+ * that {@link PositionFactory#makeLegalMoveInPlace} leaves the board and hash
+ * exactly as the probing variant does, and that the per-node
+ * {@link AttackInfo} agrees with the direct check and pin queries.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MoveGeneratorLegalTest {
+
+    private static final PositionFactory PF  = new PositionFactoryImpl();
+    private static final MoveGenerator   GEN = new MoveGeneratorImpl();
+
+    private static final int WALKS_PER_FEN = 8;
+    private static final int WALK_PLIES    = 12;
+
+    private final Random rng = new Random(0x1E6A1L);
+    private List<String> fens;
+
+    @BeforeAll
+    void load() throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/perft/qbbAll.txt");
+             BufferedReader br = new BufferedReader(new InputStreamReader(
+                     Objects.requireNonNull(in, "qbbAll.txt not on classpath")))) {
+            fens = br.lines().map(String::trim)
+                    .filter(l -> !(l.isEmpty() || l.startsWith("#")))
+                    .map(l -> l.split(";")[0].trim())
+                    .toList();
+        }
+        Assertions.assertFalse(fens.isEmpty(), "qbbAll.txt missing / empty");
+    }
+
+    @Test
+    void legalGenerationMatchesMakeAndProbe() {
+        int[] pseudo = new int[256];
+        int[] legal = new int[256];
+        long positions = 0;
+
+        for (String fen : fens) {
+            for (int w = 0; w < WALKS_PER_FEN; w++) {
+                long[] bb = PF.fromFen(fen);
+                for (int ply = 0; ply < WALK_PLIES; ply++) {
+                    boolean white = PositionFactory.whiteToMove(bb[PositionFactory.META]);
+                    int n = GEN.kingAttacked(bb, white)
+                            ? GEN.generateEvasions(bb, pseudo, 0)
+                            : GEN.generateQuiets(bb, pseudo, GEN.generateCaptures(bb, pseudo, 0));
+
+                    Set<Integer> expected = new HashSet<>();
+                    for (int i = 0; i < n; i++) {
+                        long[] copy = bb.clone();
+                        if (PF.makeMoveInPlace(copy, pseudo[i], GEN)) expected.add(pseudo[i]);
+                    }
+
+                    int m = GEN.generateLegal(bb, legal, 0);
+                    Set<Integer> got = new HashSet<>();
+                    for (int i = 0; i < m; i++) assertTrue(got.add(legal[i]), "duplicate legal move");
+                    assertEquals(expected, got, () -> "legal move set differs for " + PF.toFen(bb));
+                    positions++;
+
+                    if (m == 0) break;
+                    int mv = legal[rng.nextInt(m)];
+                    long[] probed = bb.clone();
+                    assertTrue(PF.makeMoveInPlace(probed, mv, GEN));
+                    PF.makeLegalMoveInPlace(bb, mv);
+                    assertArrayEquals(probed, bb, "makeLegalMoveInPlace diverged from makeMoveInPlace");
+                }
+            }
+        }
+        System.out.printf("LEGAL : %,d positions cross-checked%n", positions);
+    }
+
+    @Test
+    void attackInfoMatchesDirectQueries() {
+        int[] pseudo = new int[256];
+        AttackInfo ai = new AttackInfo();
+
+        for (String fen : fens) {
+            long[] bb = PF.fromFen(fen);
+            for (int ply = 0; ply < WALK_PLIES; ply++) {
+                boolean white = PositionFactory.whiteToMove(bb[PositionFactory.META]);
+                GEN.computeAttackInfo(bb, ai);
+                boolean inCheck = GEN.kingAttacked(bb, white);
+                assertEquals(inCheck, ai.inCheck(), () -> "check differs for " + PF.toFen(bb));
+                assertEquals(GEN.pinnedPieces(bb), ai.pinned, () -> "pins differ for " + PF.toFen(bb));
+
+                int n = inCheck
+                        ? GEN.generateEvasions(bb, pseudo, 0)
+                        : GEN.generateQuiets(bb, pseudo, GEN.generateCaptures(bb, pseudo, 0));
+                int legalCount = 0;
+                for (int i = 0; i < n; i++) {
+                    boolean expected = PF.makeMoveInPlace(bb.clone(), pseudo[i], GEN);
+                    assertEquals(expected, GEN.isLegal(bb, pseudo[i], ai),
+                            () -> "isLegal differs for " + PF.toFen(bb));
+                    if (expected) pseudo[legalCount++] = pseudo[i];
+                }
+
+                if (legalCount == 0) break;
+                PF.makeLegalMoveInPlace(bb, pseudo[rng.nextInt(legalCount)]);
+            }
+        }
+    }
+}
@@ -149,6 +149,7 @@ public class MoveGeneratorPerftAllTest {
             cnt.pseudo  += total;
         }
 
+        long pinned = GEN.pinnedPieces(bb);
         long nodes = 0;
         for (int i = 0; i < legalCnt; ++i){
             int mv = moves[i];
@@ -158,7 +159,8 @@ public class MoveGeneratorPerftAllTest {
                 throw new AssertionError("Generated king capture: "
                         + moveToUci(mv) + "  FEN " + POS_FACTORY.toFen(bb));
 
-            if (!POS_FACTORY.makeMoveInPlace(bb, mv, GEN)) continue;
+            if (!GEN.isLegal(bb, mv, pinned)) continue;
+            POS_FACTORY.makeLegalMoveInPlace(bb, mv);
             nodes += perft(bb, depth-1, ply+1, cnt);
             POS_FACTORY.undoMoveInPlace(bb);
         }
@@ -1,6 +1,7 @@
 package core;
 
 import core.contracts.MoveGenerator;
+import core.contracts.Perft;
 import core.contracts.PositionFactory;
 import java.io.BufferedReader;
 import java.io.InputStream;
@@ -9,6 +10,7 @@ import java.util.*;
 import java.util.stream.Stream;
 
 import core.impl.MoveGeneratorImpl;
+import core.impl.PerftImpl;
 import core.impl.PositionFactoryImpl;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -20,6 +22,8 @@ public class MoveGeneratorPerftTest {
   /* ── wiring ───────────────────────────────────────────────────── */
   private static final PositionFactory POS_FACTORY = new PositionFactoryImpl();
   private static final MoveGenerator GEN = new MoveGeneratorImpl();
+  private static final Perft PERFT =
+          new PerftImpl(POS_FACTORY, GEN, 64, Runtime.getRuntime().availableProcessors());
 
   /* ── per‑test‑case record ─────────────────────────────────────── */
   private record TestCase(String fen, int depth, long expected) {}
@@ -62,10 +66,9 @@ public class MoveGeneratorPerftTest {
   @MethodSource("caseStream")
   void perft(TestCase tc) {
     long[] root = POS_FACTORY.fromFen(tc.fen);
-    boolean moverIsWhite = tc.fen.split("\\s+")[1].charAt(0) == 'w';
 
     long t0 = System.nanoTime();
-    long got = perft(root, moverIsWhite, tc.depth, 0);
+    long got = PERFT.perft(root, tc.depth);
     timeNs += System.nanoTime() - t0;
     nodes += got;
     Assertions.assertEquals(tc.expected, got, () -> "mismatch depth=" + tc.depth + " FEN=" + tc.fen);
@@ -76,39 +79,6 @@ public class MoveGeneratorPerftTest {
   void report() {
     double s = timeNs / 1_000_000_000.0;
     System.out.printf("FAST : %,d nodes  %.3f s  %,d NPS%n", nodes, s, (long) (nodes / Math.max(1e-9, s)));
-  }
-
-  private static final int MAX_PLY = 64;
-  private static final int LIST_CAP = 256;
-
-  private static final int[][] MOVES = new int[MAX_PLY][LIST_CAP];
-
-  private static long perft(long[] bb, boolean moverIsWhite, int depth, int ply) {
-    if (depth == 0) return 1;
-
-    int[] moves = MOVES[ply];
-    int cnt;
-
-    // 1. Decide which move list to generate depending on check state
-    if (GEN.kingAttacked(bb, moverIsWhite)) {
-      cnt = GEN.generateEvasions(bb, moves, 0);
-    } else {
-      cnt = GEN.generateCaptures(bb, moves, 0);          // noisy first
-      cnt = GEN.generateQuiets(bb, moves, cnt);          // then quiets appended
-    }
-
-    long nodes = 0;
-
-    // 2. DFS over the move list
-    for (int i = 0; i < cnt; ++i) {
-      if (!POS_FACTORY.makeMoveInPlace(bb, moves[i], GEN)) {
-        continue; // illegal → parent position (and its cookies) remain intact
-      }
-
-      nodes += perft(bb, !moverIsWhite, depth - 1, ply + 1);
-      POS_FACTORY.undoMoveInPlace(bb); // restores board & per‑ply cookie snapshots
-    }
-
-    return nodes;
+    PERFT.close();
   }
 }
@@ -0,0 +1,113 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import core.contracts.MoveGenerator;
+import core.contracts.PositionFactory;
+import core.impl.MoveGeneratorImpl;
+import core.impl.PositionFactoryImpl;
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+/**
+ * Fuzzes {@link MoveGenerator#isPseudoLegal} against full generation.
+ *
+ * For every position reached by random walks from the perft suite the oracle is
+ * "generateCaptures ∪ generateQuiets". Candidates are the generated moves
+ * themselves, moves harvested from other positions (what a colliding TT entry
+ * or a stale killer looks like), single-field mutations of real moves and
+ * plain random bit patterns.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MoveGeneratorPseudoLegalTest {
+
+    private static final PositionFactory PF  = new PositionFactoryImpl();
+    private static final MoveGenerator   GEN = new MoveGeneratorImpl();
+
+    private static final int WALKS_PER_FEN = 12;
+    private static final int WALK_PLIES    = 10;
+    private static final int POOL_SIZE     = 1 << 14;
+    private static final long MIN_PAIRS    = 2_000_000;
+
+    private final Random rng = new Random(0x5EED_1234L);
+    private final int[] pool = new int[POOL_SIZE];
+    private int poolFill;
+    private List<String> fens;
+
+    @BeforeAll
+    void load() throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/perft/qbbAll.txt");
+             BufferedReader br = new BufferedReader(new InputStreamReader(
+                     Objects.requireNonNull(in, "qbbAll.txt not on classpath")))) {
+            fens = br.lines().map(String::trim)
+                    .filter(l -> !(l.isEmpty() || l.startsWith("#")))
+                    .map(l -> l.split(";")[0].trim())
+                    .toList();
+        }
+        Assertions.assertFalse(fens.isEmpty(), "qbbAll.txt missing / empty");
+    }
+
+    @Test
+    void agreesWithFullGeneration() {
+        int[] buf = new int[256];
+        int[] sorted = new int[256];
+        long pairs = 0, positives = 0;
+
+        for (String fen : fens) {
+            for (int w = 0; w < WALKS_PER_FEN; w++) {
+                long[] bb = PF.fromFen(fen);
+                for (int ply = 0; ply < WALK_PLIES; ply++) {
+                    int n = GEN.generateQuiets(bb, buf, GEN.generateCaptures(bb, buf, 0));
+                    System.arraycopy(buf, 0, sorted, 0, n);
+                    Arrays.sort(sorted, 0, n);
+
+                    for (int i = 0; i < n; i++) {
+                        pairs++;
+                        positives++;
+                        check(bb, buf[i], sorted, n);
+                        pool[poolFill++ & (POOL_SIZE - 1)] = buf[i];
+                        pairs += checkMutations(bb, buf[i], sorted, n);
+                    }
+                    int foreign = Math.min(poolFill, POOL_SIZE);
+                    for (int i = 0; i < 64; i++) {
+                        check(bb, pool[rng.nextInt(foreign)], sorted, n);
+                        check(bb, rng.nextInt(1 << 20), sorted, n);
+                    }
+                    pairs += 128;
+
+                    if (!playRandomLegal(bb, buf, n)) break;
+                }
+            }
+        }
+        System.out.printf("PSEUDO-LEGAL FUZZ : %,d pairs (%,d generated moves)%n", pairs, positives);
+        assertTrue(pairs >= MIN_PAIRS, "fuzz ran only " + pairs + " pairs");
+    }
+
+    /** Flips one field of a real move at a time; returns the number of checks made. */
+    private int checkMutations(long[] bb, int mv, int[] sorted, int n) {
+        check(bb, mv ^ (1 << rng.nextInt(6)), sorted, n);              // to
+        check(bb, mv ^ (1 << (6 + rng.nextInt(6))), sorted, n);        // from
+        check(bb, mv ^ (1 << (12 + rng.nextInt(2))), sorted, n);       // promotion piece
+        check(bb, mv ^ (1 << (14 + rng.nextInt(2))), sorted, n);       // flags
+        check(bb, mv ^ (1 << (16 + rng.nextInt(4))), sorted, n);       // mover
+        return 5;
+    }
+
+    private static void check(long[] bb, int mv, int[] sorted, int n) {
+        boolean expected = Arrays.binarySearch(sorted, 0, n, mv) >= 0;
+        if (GEN.isPseudoLegal(bb, mv) != expected) {
+            fail(String.format("isPseudoLegal(%s) = %s for move 0x%05x (from %d to %d flags %d promo %d mover %d)",
+                    PF.toFen(bb), !expected, mv, (mv >>> 6) & 63, mv & 63, (mv >>> 14) & 3, (mv >>> 12) & 3, (mv >>> 16) & 15));
+        }
+    }
+
+    private boolean playRandomLegal(long[] bb, int[] buf, int n) {
+        for (int tries = 0; tries < n; tries++) {
+            if (PF.makeMoveInPlace(bb, buf[rng.nextInt(n)], GEN)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,132 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import core.constants.CoreConstants;
+import core.contracts.MoveGenerator;
+import core.contracts.MoveOrderer;
+import core.contracts.MovePicker;
+import core.contracts.PositionFactory;
+import core.impl.MoveGeneratorImpl;
+import core.impl.MoveOrdererImpl;
+import core.impl.MovePickerImpl;
+import core.impl.PositionFactoryImpl;
+import core.records.AttackInfo;
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+/**
+ * The staged picker must hand out exactly the legal moves of the position –
+ * each one once, whatever TT move, killers or counter move it is fed (including stale or
+ * illegal ones from hash collisions).
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MovePickerTest {
+
+    private static final PositionFactory PF  = new PositionFactoryImpl();
+    private static final MoveGenerator   GEN = new MoveGeneratorImpl();
+    private static final int WALK_PLIES = 6;
+
+    private final Random rng = new Random(0xC0FFEE);
+    private final int[][] history = new int[64][64];
+    private final int[] captureHistory = new int[CoreConstants.PIECE_TO * 6];
+    private final int[] contHistory = new int[CoreConstants.CONT_NONE + CoreConstants.PIECE_TO];
+    private final short[] counterMoves = new short[CoreConstants.PIECE_TO + 1];
+    private final MoveOrderer orderer = new MoveOrdererImpl(history);
+    private final MovePicker picker = new MovePickerImpl(GEN, orderer, history, captureHistory, contHistory, counterMoves);
+    private final AttackInfo ai = new AttackInfo();
+    private List<String> fens;
+
+    @BeforeAll
+    void load() throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/perft/qbbAll.txt");
+             BufferedReader br = new BufferedReader(new InputStreamReader(
+                     Objects.requireNonNull(in, "qbbAll.txt not on classpath")))) {
+            fens = br.lines().map(String::trim)
+                    .filter(l -> !(l.isEmpty() || l.startsWith("#")))
+                    .map(l -> l.split(";")[0].trim())
+                    .toList();
+        }
+        for (int[] row : history) for (int i = 0; i < 64; i++) row[i] = rng.nextInt(20001) - 10000;
+        for (int i = 0; i < captureHistory.length; i++) captureHistory[i] = rng.nextInt(20001) - 10000;
+        for (int i = 0; i < CoreConstants.CONT_NONE; i++) contHistory[i] = rng.nextInt(20001) - 10000;
+        for (int i = 0; i < CoreConstants.PIECE_TO; i++) counterMoves[i] = (short) rng.nextInt(1 << 16);
+    }
+
+    @Test
+    void picksEveryLegalMoveExactlyOnce() {
+        int[] buf = new int[256];
+        short[] killers = new short[2];
+        long nodes = 0;
+
+        for (String fen : fens) {
+            long[] bb = PF.fromFen(fen);
+            int cont1 = CoreConstants.CONT_NONE, cont2 = CoreConstants.CONT_NONE;
+            for (int ply = 0; ply < WALK_PLIES; ply++) {
+                GEN.computeAttackInfo(bb, ai);
+                int n = GEN.generateLegal(bb, buf, 0);
+                if (n == 0) break;
+
+                int tt = pickHint(buf, n);
+                killers[0] = MoveGenerator.compact(pickHint(buf, n));
+                killers[1] = MoveGenerator.compact(pickHint(buf, n));
+                if (cont1 != CoreConstants.CONT_NONE)
+                    counterMoves[cont1 / CoreConstants.PIECE_TO] = MoveGenerator.compact(pickHint(buf, n));
+                picker.init(bb, MoveGenerator.compact(tt), killers, ai, cont1, cont2);
+
+                Map<Integer, Integer> got = new HashMap<>();
+                for (int mv; (mv = picker.next()) != MovePicker.NONE; ) got.merge(mv, 1, Integer::sum);
+
+                Map<Integer, Integer> want = new HashMap<>();
+                for (int i = 0; i < n; i++) want.merge(buf[i], 1, Integer::sum);
+                assertEquals(want, got, () -> "picker output differs for " + fen);
+
+                if (tt != 0 && want.containsKey(tt)) {
+                    picker.init(bb, MoveGenerator.compact(tt), killers, ai, cont1, cont2);
+                    assertEquals(tt, picker.next(), "TT move must come first");
+                }
+                nodes++;
+
+                int played = buf[rng.nextInt(n)];
+                cont2 = cont1;
+                cont1 = (((played >>> 16) & 0xF) * 64 + (played & 0x3F)) * CoreConstants.PIECE_TO;
+                PF.makeLegalMoveInPlace(bb, played);
+            }
+        }
+        assertTrue(nodes > 0);
+    }
+
+    @Test
+    void quiescencePicksOnlyNonLosingCaptures() {
+        int[] buf = new int[256];
+        for (String fen : fens) {
+            long[] bb = PF.fromFen(fen);
+            GEN.computeAttackInfo(bb, ai);
+            if (ai.inCheck()) continue;
+
+            int n = GEN.generateCaptures(bb, buf, 0);
+            long pinned = GEN.pinnedPieces(bb);
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < n; i++) {
+                if (GEN.isLegal(bb, buf[i], pinned) && orderer.seeGe(bb, buf[i], 0)) expected.add(buf[i]);
+            }
+
+            picker.initQuiescence(bb, ai);
+            Set<Integer> got = new HashSet<>();
+            for (int mv; (mv = picker.next()) != MovePicker.NONE; ) assertTrue(got.add(mv), "duplicate move");
+            assertEquals(expected, got, () -> "q-search picker differs for " + fen);
+        }
+    }
+
+    /** A TT / killer hint: usually a real move, sometimes empty, sometimes garbage. */
+    private int pickHint(int[] buf, int n) {
+        return switch (rng.nextInt(4)) {
+            case 0 -> 0;
+            case 1 -> rng.nextInt(1 << 20);
+            default -> buf[rng.nextInt(n)];
+        };
+    }
+}
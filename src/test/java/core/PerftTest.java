@@ -0,0 +1,97 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import core.contracts.MoveGenerator;
+import core.contracts.Perft;
+import core.contracts.PositionFactory;
+import core.impl.MoveGeneratorImpl;
+import core.impl.PerftImpl;
+import core.impl.PositionFactoryImpl;
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+/**
+ * Bulk counting, the subtree cache and the root split are pure speed-ups:
+ * the parallel, hashed engine must agree with a plain make/undo walk on every
+ * suite position, and a divide must add up to the perft it was taken from.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PerftTest {
+
+    private static final PositionFactory PF  = new PositionFactoryImpl();
+    private static final MoveGenerator   GEN = new MoveGeneratorImpl();
+    private static final int DEPTH = 3;
+
+    /** A tiny cache so that replacement and index collisions happen all the time. */
+    private final Perft perft = new PerftImpl(PF, GEN, 1, 4);
+    private final int[][] moves = new int[DEPTH][256];
+    private List<String> fens;
+
+    @BeforeAll
+    void load() throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/perft/qbbAll.txt");
+             BufferedReader br = new BufferedReader(new InputStreamReader(
+                     Objects.requireNonNull(in, "qbbAll.txt not on classpath")))) {
+            fens = br.lines().map(String::trim)
+                    .filter(l -> !(l.isEmpty() || l.startsWith("#")))
+                    .map(l -> l.split(";")[0].trim())
+                    .toList();
+        }
+    }
+
+    @AfterAll
+    void tearDown() {
+        perft.close();
+    }
+
+    @Test
+    void matchesPlainWalk() {
+        for (String fen : fens) {
+            long[] bb = PF.fromFen(fen);
+            String before = PF.toFen(bb);
+            for (int d = 0; d <= DEPTH; d++) {
+                long expected = walk(bb, d);
+                assertEquals(expected, perft.perft(bb, d), "depth " + d + " FEN " + fen);
+            }
+            assertEquals(before, PF.toFen(bb), "root position modified");
+        }
+    }
+
+    @Test
+    void divideAddsUp() {
+        int[] buf = new int[256];
+        for (String fen : fens) {
+            long[] bb = PF.fromFen(fen);
+            int n = GEN.generateLegal(bb, buf, 0);
+
+            List<Integer> seen = new ArrayList<>();
+            long[] sum = new long[1];
+            long total = perft.divide(bb, DEPTH, (mv, nodes) -> {
+                seen.add(mv);
+                sum[0] += nodes;
+            });
+
+            assertEquals(n, seen.size(), "one line per legal root move");
+            for (int i = 0; i < n; i++) assertEquals(buf[i], (int) seen.get(i), "generation order");
+            assertEquals(total, sum[0]);
+            assertEquals(perft.perft(bb, DEPTH), total);
+        }
+    }
+
+    private long walk(long[] bb, int depth) {
+        if (depth == 0) return 1;
+        int[] list = moves[depth - 1];
+        int n = GEN.generateLegal(bb, list, 0);
+        long nodes = 0;
+        for (int i = 0; i < n; i++) {
+            PF.makeLegalMoveInPlace(bb, list[i]);
+            nodes += walk(bb, depth - 1);
+            PF.undoMoveInPlace(bb);
+        }
+        return nodes;
+    }
+}
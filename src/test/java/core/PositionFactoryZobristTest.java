@@ -151,6 +151,7 @@ class PositionFactoryZobristTest {
 
     private static void assertHashesEqual(long[] bb) {
         COPY_TMP = Arrays.copyOf(bb, bb.length);
+        assertMailboxMatches(bb);
         long full = PF.fullHash(bb);
         long inc  = PF.zobrist(bb);
         if (full == inc) return;
@@ -159,6 +160,19 @@ class PositionFactoryZobristTest {
         dumpAndFail("Hash mismatch", full, inc);
     }
 
+    /** The mailbox is maintained by the same make/undo path, so it is checked alongside the hash. */
+    private static void assertMailboxMatches(long[] bb) {
+        for (int sq = 0; sq < 64; ++sq) {
+            int want = -1;
+            for (int p = WP; p <= BK; ++p) if ((bb[p] & (1L << sq)) != 0) want = p;
+            int got = PositionFactory.pieceAt(bb, sq);
+            if (got != want) {
+                System.err.println("FEN at failure: " + PF.toFen(COPY_TMP));
+                fail("mailbox square " + sq + " holds " + got + ", bitboards say " + want);
+            }
+        }
+    }
+
     private static void dumpAndFail(String tag, long exp, long act) {
         System.err.println("Failure reason: " + tag);
         System.err.printf("Expected: 0x%016X%nActual:   0x%016X%n", exp, act);
@@ -0,0 +1,87 @@
+package core;
+
+import core.contracts.*;
+import core.impl.*;
+import core.records.SearchResult;
+import core.records.SearchSpec;
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.*;
+
+/**
+ * Guards the allocation-free search hot path.
+ *
+ * <p>Runs the same fixed-depth searches twice at different depths and compares the bytes
+ * allocated by the worker thread. Per-search costs (result record, PV list, orderer) are
+ * identical in both runs, so whatever is left over has to come from {@code pvs} /
+ * {@code quiescence} and must be zero per node.</p>
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SearchAllocationTest {
+
+    private static final int SHALLOW = 5;
+    private static final int DEEP = 9;
+    private static final int FEN_COUNT = 8;
+
+    private final PositionFactory pf = new PositionFactoryImpl();
+    private final MoveGenerator mg = new MoveGeneratorImpl();
+    private final TranspositionTable tt = new TranspositionTableImpl(16);
+    private Search search;
+    private com.sun.management.ThreadMXBean threads;
+
+    @BeforeAll
+    void setUp() {
+        SearchWorkerFactory swf = (isMain, pool) -> new SearchWorkerImpl(isMain, (WorkerPoolImpl) pool);
+        search = new SearchImpl(pf, mg, new WorkerPoolImpl(1, swf), new TimeManagerImpl());
+        search.setTranspositionTable(tt);
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported(), "no per-thread allocation counters");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        // Let the JIT reach C2 on the hot path before measuring anything.
+        for (int i = 0; i < 2; i++) runAll(DEEP);
+    }
+
+    @AfterAll
+    void tearDown() {
+        search.close();
+    }
+
+    @Test
+    void searchAllocatesNothingPerNode() {
+        long[] shallow = runAll(SHALLOW);
+        long[] deep = runAll(DEEP);
+
+        long extraNodes = deep[1] - shallow[1];
+        long extraBytes = deep[0] - shallow[0];
+        Assumptions.assumeTrue(extraNodes > 10_000, "search tree too small to measure");
+
+        double bytesPerNode = (double) extraBytes / extraNodes;
+        System.out.printf("ALLOC : %,d extra nodes  %,d extra bytes  %.4f B/node%n",
+            extraNodes, extraBytes, bytesPerNode);
+        // Any per-node object would cost >= 16 bytes for every node that creates it.
+        Assertions.assertTrue(bytesPerNode < 0.5, () -> "hot path allocates " + bytesPerNode + " B/node");
+    }
+
+    /** @return {allocated bytes on the worker thread, nodes searched} */
+    private long[] runAll(int depth) {
+        long bytes = 0, nodes = 0;
+        for (String fen : UciHandlerImpl.BENCH_FENS.subList(0, FEN_COUNT)) {
+            tt.clear();
+            long[] root = pf.fromFen(fen);
+            long tid = workerThreadId();
+            long before = threads.getThreadAllocatedBytes(tid);
+            SearchResult r = search.search(root, new SearchSpec.Builder().depth(depth).build(), null);
+            bytes += threads.getThreadAllocatedBytes(tid) - before;
+            nodes += r.nodes();
+        }
+        return new long[] {bytes, nodes};
+    }
+
+    private static long workerThreadId() {
+        return Thread.getAllStackTraces().keySet().stream()
+            .filter(t -> t.getName().equals("Helios-Worker-0"))
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException("main worker thread not found"))
+            .threadId();
+    }
+}
@@ -0,0 +1,53 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import core.contracts.*;
+import core.impl.*;
+import core.records.SearchResult;
+import core.records.SearchSpec;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.*;
+
+/**
+ * A search started while another is still running waits for it, and must
+ * not keep {@code stop()} from ending the one it is waiting on.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SearchLifecycleTest {
+
+    private final PositionFactory pf = new PositionFactoryImpl();
+    private final MoveGenerator mg = new MoveGeneratorImpl();
+
+    @Test
+    void stopReachesAnInfiniteSearchWhileTheNextOneWaits() throws Exception {
+        WorkerPool pool = new WorkerPoolImpl(1, (isMain, p) -> new SearchWorkerImpl(isMain, (WorkerPoolImpl) p));
+        try (Search search = new SearchImpl(pf, mg, pool, new TimeManagerImpl())) {
+            search.setTranspositionTable(new TranspositionTableImpl(16));
+            long[] root = pf.fromFen(UciHandlerImpl.BENCH_FENS.get(0));
+            SearchSpec infinite = new SearchSpec.Builder().infinite(true).build();
+
+            // each search is stopped only once it has finished an iteration, so it has a move to report
+            CountDownLatch firstIteration = new CountDownLatch(1);
+            CountDownLatch secondIteration = new CountDownLatch(1);
+
+            CompletableFuture<SearchResult> first =
+                    search.searchAsync(root.clone(), infinite, info -> firstIteration.countDown());
+            // the second start parks inside searchAsync until the first search ends
+            CompletableFuture<CompletableFuture<SearchResult>> second = CompletableFuture.supplyAsync(() ->
+                    search.searchAsync(root.clone(), infinite, info -> secondIteration.countDown()));
+            assertTrue(firstIteration.await(30, TimeUnit.SECONDS));
+            Thread.sleep(200);
+
+            CompletableFuture.runAsync(search::stop).get(5, TimeUnit.SECONDS);
+            assertNotEquals(0, first.get(5, TimeUnit.SECONDS).bestMove());
+
+            CompletableFuture<SearchResult> next = second.get(5, TimeUnit.SECONDS);
+            assertTrue(secondIteration.await(30, TimeUnit.SECONDS));
+            search.stop();
+            assertNotEquals(0, next.get(5, TimeUnit.SECONDS).bestMove());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import core.contracts.MoveGenerator;
+import core.contracts.MoveOrderer;
+import core.contracts.PositionFactory;
+import core.impl.MoveGeneratorImpl;
+import core.impl.MoveOrdererImpl;
+import core.impl.PositionFactoryImpl;
+import core.records.AttackInfo;
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+/**
+ * The threshold SEE must answer exactly what the full swap-list SEE implies
+ * for every ordinary capture, with or without the attack-info shortcut, and
+ * must see the sliders uncovered behind a piece taken en passant.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StaticExchangeTest {
+
+    private static final PositionFactory PF  = new PositionFactoryImpl();
+    private static final MoveGenerator   GEN = new MoveGeneratorImpl();
+    private static final int WALK_PLIES = 16;
+    private static final int[] THRESHOLDS = {-900, -330, -200, -100, -1, 0, 1, 100, 200, 320, 500, 900};
+
+    private final Random rng = new Random(0x5EE);
+    private final MoveOrderer orderer = new MoveOrdererImpl(new int[64][64]);
+    private List<String> fens;
+
+    @BeforeAll
+    void load() throws Exception {
+        try (InputStream in = getClass().getResourceAsStream("/perft/qbbAll.txt");
+             BufferedReader br = new BufferedReader(new InputStreamReader(
+                     Objects.requireNonNull(in, "qbbAll.txt not on classpath")))) {
+            fens = br.lines().map(String::trim)
+                    .filter(l -> !(l.isEmpty() || l.startsWith("#")))
+                    .map(l -> l.split(";")[0].trim())
+                    .toList();
+        }
+    }
+
+    @Test
+    void thresholdFormAgreesWithSwapList() {
+        int[] buf = new int[256];
+        AttackInfo ai = new AttackInfo();
+        long checked = 0;
+
+        for (String fen : fens) {
+            long[] bb = PF.fromFen(fen);
+            for (int ply = 0; ply < WALK_PLIES; ply++) {
+                int n = GEN.generateLegal(bb, buf, 0);
+                if (n == 0) break;
+                GEN.computeAttackInfo(bb, ai);
+
+                for (int i = 0; i < n; i++) {
+                    int mv = buf[i];
+                    if (PositionFactory.pieceAt(bb, mv & 0x3F) < 0) continue;   // quiets and en passant
+                    int see = orderer.see(bb, mv);
+                    for (int t : THRESHOLDS) {
+                        assertEquals(see >= t, orderer.seeGe(bb, mv, t), "seeGe " + t + " on " + PF.toFen(bb));
+                        assertEquals(see >= t, orderer.seeGe(bb, mv, t, ai), "shortcut " + t + " on " + PF.toFen(bb));
+                        checked++;
+                    }
+                }
+                PF.makeLegalMoveInPlace(bb, buf[rng.nextInt(n)]);
+            }
+        }
+        assertTrue(checked > 0);
+    }
+
+    @Test
+    void enPassantUncoversTheQueenBehind() {
+        // bxc3 e.p. lifts the c4 pawn: after b2xc3 d4xc3 Bxc3 the c5 queen recaptures, so White stops early.
+        long[] bb = PF.fromFen("r1b3r1/5p1k/p1n2P1p/P1qpp1P1/1pPp4/3P2Q1/BP1B2P1/R4RK1 b - c3 0 1");
+        int ep = find(bb, 25, 18);
+        assertTrue(orderer.seeGe(bb, ep, 100));
+        assertFalse(orderer.seeGe(bb, ep, 101));
+    }
+
+    @Test
+    void enPassantShortcutSeesTheRookBehindTheCapturedPawn() {
+        // exd6 e.p. lifts the d5 pawn, opening the d1 rook onto d6: the pawn is won and lost again.
+        long[] bb = PF.fromFen("k7/8/8/3pP3/8/8/7K/3r4 w - d6 0 1");
+        AttackInfo ai = new AttackInfo();
+        GEN.computeAttackInfo(bb, ai);
+        int ep = find(bb, 36, 43);
+        assertTrue(orderer.seeGe(bb, ep, 0, ai));
+        assertFalse(orderer.seeGe(bb, ep, 1, ai));
+    }
+
+    @Test
+    void hangingPieceFailsQuietThreshold() {
+        // Bf1-a6?? drops the bishop to b7xa6; Ng1-f3 goes to a safe square and costs nothing.
+        long[] bb = PF.fromFen("rnb1kbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 1");
+        assertFalse(orderer.seeGe(bb, find(bb, 5, 40), 0));
+        assertTrue(orderer.seeGe(bb, find(bb, 6, 21), 0));
+    }
+
+    private static int find(long[] bb, int from, int to) {
+        int[] buf = new int[256];
+        int n = GEN.generateLegal(bb, buf, 0);
+        for (int i = 0; i < n; i++) {
+            if (((buf[i] >>> 6) & 0x3F) == from && (buf[i] & 0x3F) == to) return buf[i];
+        }
+        throw new AssertionError("no move " + from + "-" + to);
+    }
+}
@@ -0,0 +1,130 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import core.contracts.MoveGenerator;
+import core.contracts.PositionFactory;
+import core.contracts.TranspositionTable;
+import core.impl.MoveGeneratorImpl;
+import core.impl.PositionFactoryImpl;
+import core.impl.TranspositionTableImpl;
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+/**
+ * Round-trips entries through the packed single-long layout and checks that a
+ * stored move survives the trip through its 16-bit form.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TranspositionTableTest {
+
+    private static final PositionFactory PF  = new PositionFactoryImpl();
+    private static final MoveGenerator   GEN = new MoveGeneratorImpl();
+
+    @Test
+    void fieldsRoundTrip() {
+        TranspositionTable tt = new TranspositionTableImpl(1);
+        Random rng = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            tt.clear();
+            long key = rng.nextLong();
+            int move = rng.nextInt(1 << 20);
+            int depth = rng.nextInt(128);
+            int score = rng.nextInt(2 * 20_000) - 20_000;
+            int eval = rng.nextInt(2 * 20_000) - 20_000;
+            int bound = 1 + rng.nextInt(3);
+            boolean pv = rng.nextBoolean();
+
+            int idx = tt.probe(key);
+            assertFalse(tt.wasHit(idx, key));
+            tt.store(idx, key, bound, depth, move, score, eval, pv, 0);
+
+            idx = tt.probe(key);
+            assertTrue(tt.wasHit(idx, key));
+            assertEquals(move & MoveGenerator.COMPACT_MASK, tt.getMove(idx));
+            assertEquals(depth, tt.getDepth(idx));
+            assertEquals(score, tt.getScore(idx, 0));
+            assertEquals(eval, tt.getStaticEval(idx));
+            assertEquals(bound, tt.getBound(idx));
+            assertEquals(pv, tt.wasPv(idx));
+        }
+    }
+
+    @Test
+    void bucketHoldsThreeKeys() {
+        TranspositionTable tt = new TranspositionTableImpl(1);
+        long[] keys = keysSharingABucket(tt, 3);
+        for (int i = 0; i < 3; i++) {
+            tt.store(tt.probe(keys[i]), keys[i], TranspositionTable.FLAG_EXACT, 10 + i, 0, i, 0, false, 0);
+        }
+        for (int i = 0; i < 3; i++) {
+            int idx = tt.probe(keys[i]);
+            assertTrue(tt.wasHit(idx, keys[i]), "entry " + i + " evicted");
+            assertEquals(i, tt.getScore(idx, 0));
+        }
+    }
+
+    /**
+     * Three threads each own one slot of a bucket and alternate two keys in it.
+     * A check lost to another slot's store would leave a slot answering for the
+     * wrong key, with that key's score.
+     */
+    @Test
+    void concurrentStoresToOneBucketKeepTheirOwnChecks() throws Exception {
+        TranspositionTable tt = new TranspositionTableImpl(1);
+        long[] keys = keysSharingABucket(tt, 2 * 3);
+        int base = tt.probe(keys[0]);   // the bucket is empty: its first entry
+        int rounds = 200_000;
+
+        List<Thread> threads = new ArrayList<>();
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        for (int slot = 0; slot < 3; slot++) {
+            int idx = base + slot;
+            int s = slot;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < rounds && errors.isEmpty(); i++) {
+                    int k = 2 * s + (i & 1);
+                    tt.store(idx, keys[k], TranspositionTable.FLAG_EXACT, 1, 0, k, 0, false, 0);
+                    if (!tt.wasHit(idx, keys[k]) || tt.getScore(idx, 0) != k) {
+                        errors.add("slot " + s + " lost key " + k + " in round " + i);
+                    }
+                }
+            }));
+        }
+        for (Thread t : threads) t.start();
+        for (Thread t : threads) t.join();
+        assertEquals(List.of(), errors);
+
+        int last = (rounds - 1) & 1;
+        for (int slot = 0; slot < 3; slot++) {
+            int k = 2 * slot + last;
+            assertTrue(tt.wasHit(base + slot, keys[k]), "slot " + slot);
+            assertFalse(tt.wasHit(base + slot, keys[k ^ 1]), "slot " + slot);
+            assertEquals(k, tt.getScore(base + slot, 0));
+        }
+    }
+
+    /** Random keys until {@code n} of them land in the same bucket (empty slots probe to its first entry). */
+    private static long[] keysSharingABucket(TranspositionTable tt, int n) {
+        Random rng = new Random(7);
+        Map<Integer, List<Long>> byBucket = new HashMap<>();
+        while (true) {
+            long key = rng.nextLong();
+            List<Long> same = byBucket.computeIfAbsent(tt.probe(key), b -> new ArrayList<>());
+            same.add(key);
+            if (same.size() == n) return same.stream().mapToLong(Long::longValue).toArray();
+        }
+    }
+
+    @Test
+    void compactMoveExpandsOnItsBoard() {
+        int[] buf = new int[256];
+        long[] bb = PF.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        int n = GEN.generateLegal(bb, buf, 0);
+        for (int i = 0; i < n; i++) {
+            assertEquals(buf[i], GEN.expand(bb, MoveGenerator.compact(buf[i])));
+        }
+        assertEquals(0, GEN.expand(bb, 0));
+        assertEquals(0, GEN.expand(bb, (20 << 6) | 28), "e3 is empty");
+    }
+}
@@ -0,0 +1,30 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import core.constants.SearchParams;
+import core.constants.Tunables;
+import org.junit.jupiter.api.*;
+
+/**
+ * The search constants are resolved from the registry once; after that the
+ * registry refuses changes instead of silently diverging from them.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TunablesTest {
+
+    @Test
+    void rejectsUnknownNamesAndOutOfRangeValues() {
+        assertThrows(IllegalArgumentException.class, () -> Tunables.set("NoSuchParam", 1));
+        Tunables.Param p = Tunables.PARAMS.get(0);
+        assertThrows(IllegalArgumentException.class, () -> Tunables.set(p.name(), p.max() + 1));
+        assertThrows(IllegalArgumentException.class, () -> Tunables.set(p.name(), p.min() - 1));
+    }
+
+    @Test
+    void searchParamsFreezeTheRegistry() {
+        assertEquals(Tunables.get("RfpMargin"), SearchParams.RFP_MARGIN);
+        assertEquals(-Tunables.get("SeePruneMargin"), SearchParams.SEE_MARGIN_PER_DEPTH);
+        assertThrows(IllegalStateException.class, () -> Tunables.set("RfpMargin", Tunables.get("RfpMargin")));
+    }
+}
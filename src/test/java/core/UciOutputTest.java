@@ -0,0 +1,58 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import core.contracts.UciOutput;
+import core.impl.UciOutputImpl;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.*;
+
+/**
+ * The writer thread may drop progress lines, but never reorders the rest and
+ * never loses the last {@code info} before a {@code bestmove}.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UciOutputTest {
+
+    @Test
+    void linesKeepTheirOrder() {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        try (UciOutput out = new UciOutputImpl(sink)) {
+            for (int i = 0; i < 1000; i++) out.println("line " + i);
+        }
+        List<String> lines = lines(sink);
+        assertEquals(1000, lines.size());
+        for (int i = 0; i < 1000; i++) assertEquals("line " + i, lines.get(i));
+    }
+
+    @Test
+    void infoBurstIsThinnedButEndsWithTheLastLine() {
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        try (UciOutput out = new UciOutputImpl(sink)) {
+            for (int d = 1; d <= 1000; d++) out.info("info depth " + d);
+            out.println("bestmove e2e4");
+        }
+        List<String> lines = lines(sink);
+        assertTrue(lines.size() < 1000, "progress lines were not rate limited");
+        assertEquals("info depth 1000", lines.get(lines.size() - 2));
+        assertEquals("bestmove e2e4", lines.get(lines.size() - 1));
+    }
+
+    @Test
+    void infoAfterAQueuedLineIsWrittenAfterIt() {
+        for (int i = 0; i < 1000; i++) {
+            ByteArrayOutputStream sink = new ByteArrayOutputStream();
+            try (UciOutput out = new UciOutputImpl(sink)) {
+                out.println("info string A");
+                out.info("info depth 1");
+            }
+            assertEquals(List.of("info string A", "info depth 1"), lines(sink));
+        }
+    }
+
+    private static List<String> lines(ByteArrayOutputStream sink) {
+        return sink.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+}
@@ -0,0 +1,113 @@
+package core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import core.constants.Tunables;
+import core.impl.UciServer;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.*;
+
+/**
+ * Sessions of one server are separate engines: each answers its own client
+ * and keeps its own position.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UciServerTest {
+
+    private UciServer server;
+    private int port;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        server = new UciServer("0");
+        port = ((InetSocketAddress) server.localAddress()).getPort();
+        Thread acceptor = new Thread(() -> {
+            try {
+                server.serve();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }, "uci-server-test");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @AfterAll
+    void tearDown() throws Exception {
+        server.close();
+    }
+
+    @Test
+    void concurrentSessionsAnswerTheirOwnClients() throws Exception {
+        // a different only-move position per client: the reply shows whose position was searched
+        CompletableFuture<String> a = CompletableFuture.supplyAsync(() ->
+                bestmove("position fen 7k/8/8/8/8/8/6q1/K7 w - - 0 1"));
+        CompletableFuture<String> b = CompletableFuture.supplyAsync(() ->
+                bestmove("position fen k7/8/8/8/8/8/1q6/7K w - - 0 1"));
+
+        assertEquals("bestmove a1b1", a.get(30, TimeUnit.SECONDS).split(" ponder")[0]);
+        assertEquals("bestmove h1g1", b.get(30, TimeUnit.SECONDS).split(" ponder")[0]);
+    }
+
+    @Test
+    void tunablesAreNeitherListedNorAccepted() throws Exception {
+        int before = Tunables.get("RfpMargin");
+        try (Socket s = new Socket("127.0.0.1", port)) {
+            OutputStream out = s.getOutputStream();
+            out.write("uci\nsetoption name RfpMargin value 90\nisready\nquit\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+            List<String> lines = in.lines().toList();
+            assertTrue(lines.stream().noneMatch(l -> l.startsWith("option name RfpMargin")), lines.toString());
+            assertTrue(lines.stream().anyMatch(l -> l.startsWith("info string RfpMargin is shared")), lines.toString());
+        }
+        assertEquals(before, Tunables.get("RfpMargin"));
+    }
+
+    @Test
+    void socketPathNeverReplacesAFile() throws Exception {
+        Path file = Files.createTempFile("helios", ".txt");
+        try {
+            Files.writeString(file, "keep me");
+            assertThrows(FileAlreadyExistsException.class, () -> new UciServer(file.toString()));
+            assertEquals("keep me", Files.readString(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private String bestmove(String position) {
+        try (Socket s = new Socket("127.0.0.1", port)) {
+            OutputStream out = s.getOutputStream();
+            out.write(("uci\nisready\n" + position + "\ngo depth 4\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+            List<String> lines = new ArrayList<>();
+            for (String line; (line = in.readLine()) != null; ) {
+                lines.add(line);
+                if (line.startsWith("bestmove")) {
+                    out.write("quit\n".getBytes(StandardCharsets.UTF_8));
+                    assertTrue(lines.contains("uciok") && lines.contains("readyok"), lines.toString());
+                    return line;
+                }
+            }
+            throw new AssertionError("session closed early: " + lines);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}